@@ -1,9 +1,12 @@
 package com.example.bankcards;
 
+import com.example.bankcards.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class BankCardManagementSystemApplication {
     public static void main(String[] args) {
         SpringApplication.run(BankCardManagementSystemApplication.class, args);
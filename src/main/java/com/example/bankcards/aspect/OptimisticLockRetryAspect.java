@@ -0,0 +1,59 @@
+package com.example.bankcards.aspect;
+
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Re-runs the whole transaction on version conflicts, so it has to wrap the transaction
+ * interceptor rather than run inside it.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class OptimisticLockRetryAspect {
+
+    @Value("${app.retry.optimistic-lock.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${app.retry.optimistic-lock.initial-backoff:10}")
+    private long initialBackoff;
+
+    @Value("${app.retry.optimistic-lock.max-backoff:200}")
+    private long maxBackoff;
+
+    @Around("@annotation(com.example.bankcards.aspect.RetryOnOptimisticLock)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = joinPoint.getSignature().getName();
+        long backoff = initialBackoff;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                Metrics.counter("optimistic.lock.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    Metrics.counter("optimistic.lock.exhausted", "operation", operation).increment();
+                    log.warn("Optimistic lock conflict on {} after {} attempts", operation, attempt);
+                    throw e;
+                }
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+                backoff = Math.min(backoff * 2, maxBackoff);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.aspect;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every service call end to end, including optimistic-lock retries and commit.
+ * Percentiles and histogram buckets are configured under management.metrics.distribution.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    @Around("execution(public * com.example.bankcards.service.CardService+.*(..))"
+            + " || execution(public * com.example.bankcards.service.UserService+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Metrics.timer("bankcards.service",
+                    "class", joinPoint.getTarget().getClass().getSimpleName(),
+                    "method", joinPoint.getSignature().getName(),
+                    "exception", exception));
+        }
+    }
+}
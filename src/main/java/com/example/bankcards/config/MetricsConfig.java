@@ -0,0 +1,42 @@
+package com.example.bankcards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder dataSourceSaturationMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            DataSource target = dataSource;
+            if (dataSource instanceof ConcurrencyLimitingDataSource limiter) {
+                Gauge.builder("datasource.limiter.permits.available", limiter, ConcurrencyLimitingDataSource::getAvailablePermits)
+                        .tag("name", name)
+                        .register(registry);
+                target = limiter.getTargetDataSource();
+            }
+            if (target instanceof HikariDataSource hikari) {
+                Gauge.builder("hikaricp.connections.saturation", hikari, MetricsConfig::saturation)
+                        .description("(active + pending) / max connections")
+                        .tag("name", name)
+                        .register(registry);
+            }
+        });
+    }
+
+    private static double saturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0;
+        }
+        return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection()) / dataSource.getMaximumPoolSize();
+    }
+}
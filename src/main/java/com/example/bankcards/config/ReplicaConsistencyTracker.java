@@ -0,0 +1,54 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.entity.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ReplicaConsistencyTracker {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final Map<String, Long> primaryUntil = new ConcurrentHashMap<>();
+    private final long stickinessNanos;
+
+    public ReplicaConsistencyTracker(long stickinessMillis) {
+        this.stickinessNanos = stickinessMillis * 1_000_000L;
+    }
+
+    public void recordWrite(String user) {
+        long now = System.nanoTime();
+        primaryUntil.put(user, now + stickinessNanos);
+        if (primaryUntil.size() > PURGE_THRESHOLD) {
+            primaryUntil.values().removeIf(until -> until - now < 0);
+        }
+    }
+
+    public boolean isRecentWriter(String user) {
+        if (user == null) {
+            return false;
+        }
+        Long until = primaryUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() < 0) {
+            primaryUntil.remove(user, until);
+            return false;
+        }
+        return true;
+    }
+
+    public String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof User user) {
+            return user.getUsername();
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.bankcards.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica unless the current user wrote to the primary
+ * recently enough that the replica may not have caught up yet.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaConsistencyTracker consistencyTracker;
+
+    public ReplicaRoutingDataSource(ReplicaConsistencyTracker consistencyTracker) {
+        this.consistencyTracker = consistencyTracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = consistencyTracker.currentUser();
+
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return consistencyTracker.isRecentWriter(user) ? Route.PRIMARY : Route.REPLICA;
+        }
+
+        if (user != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    consistencyTracker.recordWrite(user);
+                }
+            });
+        }
+        return Route.PRIMARY;
+    }
+}
@@ -1,12 +1,21 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.BulkCardLimitRequest;
+import com.example.bankcards.dto.BulkCardStatusRequest;
+import com.example.bankcards.dto.BulkUpdateResult;
+import com.example.bankcards.dto.CardFilter;
 import com.example.bankcards.dto.CardProcessDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.ErrorResponse;
+import com.example.bankcards.dto.PageResponse;
 import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.dto.UserFilter;
+import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardRequestEventStream;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.ETagUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
@@ -17,20 +26,24 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
-@Slf4j
 @Tag(name = "Admin", description = "Operations for admin")
 public class AdminController {
 
     private final CardService cardService;
     private final UserService userService;
+    private final CardRequestEventStream cardRequestEventStream;
 
     @PostMapping("/users/{userId}/cards")
     @Operation(summary = "Create card", description = "Create card for user")
@@ -39,7 +52,6 @@ public class AdminController {
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<CardResponseDto> createCard(@RequestParam Long userId) {
-        log.info("Create card for user {}", userId);
         return ResponseEntity.ok(cardService.createCard(userId));
     }
 
@@ -51,7 +63,6 @@ public class AdminController {
             @ApiResponse(responseCode = "409", description = "Card already blocked", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<CardResponseDto> blockCard(@PathVariable Long cardId) {
-        log.info("Block card {}", cardId);
         return ResponseEntity.ok(cardService.blockCard(cardId));
     }
 
@@ -63,10 +74,39 @@ public class AdminController {
             @ApiResponse(responseCode = "409", description = "Card already active", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<CardResponseDto> activateCard(@PathVariable Long cardId) {
-        log.info("Activate card {}", cardId);
         return ResponseEntity.ok(cardService.activateCard(cardId));
     }
 
+    @PatchMapping("/cards/block")
+    @Operation(summary = "Block cards", description = "Block cards by id list or filter (owner, status, expiry window)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = BulkUpdateResult.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and filter given", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BulkUpdateResult> blockCards(@RequestBody BulkCardStatusRequest request) {
+        return ResponseEntity.ok(cardService.updateCardStatuses(request, Card.Status.BLOCKED));
+    }
+
+    @PatchMapping("/cards/activate")
+    @Operation(summary = "Activate cards", description = "Activate cards by id list or filter (owner, status, expiry window)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = BulkUpdateResult.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and filter given", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BulkUpdateResult> activateCards(@RequestBody BulkCardStatusRequest request) {
+        return ResponseEntity.ok(cardService.updateCardStatuses(request, Card.Status.ACTIVE));
+    }
+
+    @PatchMapping("/cards/limits")
+    @Operation(summary = "Set card limits", description = "Set daily and monthly spending limits on cards by id list or filter; a missing limit removes it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = BulkUpdateResult.class))),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and filter given, or a negative limit", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BulkUpdateResult> updateCardLimits(@RequestBody BulkCardLimitRequest request) {
+        return ResponseEntity.ok(cardService.updateCardLimits(request));
+    }
+
     @DeleteMapping("/cards/{cardId}")
     @Operation(summary = "Delete card", description = "Delete card")
     @ApiResponses(value = {
@@ -74,15 +114,14 @@ public class AdminController {
             @ApiResponse(responseCode = "404", description = "Card not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<Void> deleteCard(@PathVariable Long cardId) {
-        log.info("Delete card {}", cardId);
         cardService.deleteCard(cardId);
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/cards")
     @Operation(
-            summary = "Get all cards with pagination and sorting",
-            description = "Retrieve a paginated list of all cards"
+            summary = "Get all cards with pagination, sorting and filters",
+            description = "Retrieve a paginated list of cards, optionally filtered by owner, status, balance, creation and expiry ranges"
     )
     @Parameters({
             @Parameter(
@@ -112,6 +151,11 @@ public class AdminController {
                             type = "string"
                     ),
                     example = "asc"
+            ),
+            @Parameter(
+                    name = "withTotal",
+                    description = "Include totalElements and totalPages (runs a count query)",
+                    example = "false"
             )
     })
     @ApiResponses(value = {
@@ -121,22 +165,34 @@ public class AdminController {
                     content = @Content(
                             array = @ArraySchema(schema = @Schema(implementation = CardResponseDto.class))
                     )
-            )
+            ),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
     })
-    public ResponseEntity<Page<CardResponseDto>> getAllCards(
+    public ResponseEntity<PageResponse<CardResponseDto>> getAllCards(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @ParameterObject CardFilter filter,
+            WebRequest webRequest
     ) {
-        log.info("Get all cards with pagination and sorting");
-        return ResponseEntity.ok(cardService.getAllCards(page, size, sortBy, sortDir));
+        String eTag = ETagUtil.listingETag(cardService.getCardsVersion(), page, size, sortBy, sortDir, withTotal, filter,
+                webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(PageResponse.of(cardService.getAllCards(page, size, sortBy, sortDir, withTotal, filter)));
     }
 
     @GetMapping("/users")
     @Operation(
-            summary = "Get all users with pagination and sorting",
-            description = "Retrieve a paginated list of all users"
+            summary = "Get all users with pagination, sorting and filters",
+            description = "Retrieve a paginated list of users, optionally filtered by username or email prefix, name, role, status and creation range"
     )
     @Parameters({
             @Parameter(
@@ -166,6 +222,11 @@ public class AdminController {
                             type = "string"
                     ),
                     example = "asc"
+            ),
+            @Parameter(
+                    name = "withTotal",
+                    description = "Include totalElements and totalPages (runs a count query)",
+                    example = "false"
             )
     })
     @ApiResponses(value = {
@@ -175,16 +236,28 @@ public class AdminController {
                     content = @Content(
                             array = @ArraySchema(schema = @Schema(implementation = UserDto.class))
                     )
-            )
+            ),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
     })
-    public ResponseEntity<Page<UserDto>> getAllUsers(
+    public ResponseEntity<PageResponse<UserDto>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @ParameterObject UserFilter filter,
+            WebRequest webRequest
     ) {
-        log.info("Get all users with pagination and sorting");
-        return ResponseEntity.ok(userService.getAllUsers(page, size, sortBy, sortDir));
+        String eTag = ETagUtil.listingETag(userService.getUsersVersion(), page, size, sortBy, sortDir, withTotal, filter,
+                webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(PageResponse.of(userService.getAllUsers(page, size, sortBy, sortDir, withTotal, filter)));
     }
 
     @PatchMapping("/users/{userId}/activate")
@@ -206,7 +279,6 @@ public class AdminController {
             @ApiResponse(responseCode = "409", description = "User already deactivated", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<UserDto> deactivateUser(@PathVariable Long userId) {
-        log.info("Deactivate user with id: {}", userId);
         return ResponseEntity.ok(userService.deactivateUser(userId));
     }
 
@@ -218,7 +290,6 @@ public class AdminController {
             @ApiResponse(responseCode = "409", description = "User already has this role", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<UserDto> addRoleToUser(@PathVariable Long userId, @RequestParam User.Role roleName) {
-        log.info("Add role {} to user with id: {}", roleName, userId);
         return ResponseEntity.ok(userService.addRoleToUser(userId, roleName));
     }
 
@@ -252,19 +323,33 @@ public class AdminController {
                             type = "string"
                     ),
                     example = "asc"
+            ),
+            @Parameter(
+                    name = "withTotal",
+                    description = "Include totalElements and totalPages (runs a count query)",
+                    example = "false"
             )
     })
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK")
     })
-    public ResponseEntity<Page<CardProcessDto>> getAllCardRequests(
+    public ResponseEntity<PageResponse<CardProcessDto>> getAllCardRequests(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean withTotal
     ) {
-        log.info("Get all card requests with pagination and sorting");
-        return ResponseEntity.ok(cardService.getAllCardRequests(page, size, sortBy, sortDir));
+        return ResponseEntity.ok(PageResponse.of(cardService.getAllCardRequests(page, size, sortBy, sortDir, withTotal)));
+    }
+
+    @GetMapping(value = "/requests/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream card requests", description = "Server-sent events for created and processed card requests")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    public SseEmitter streamCardRequests(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return cardRequestEventStream.subscribe(lastEventId);
     }
 
     @PatchMapping("/requests/{requestId}/approve")
@@ -275,7 +360,6 @@ public class AdminController {
             @ApiResponse(responseCode = "409", description = "Card request already approved", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<CardProcessDto> approveRequest(@PathVariable Long requestId) {
-        log.info("Approve card request with id: {}", requestId);
         return ResponseEntity.ok(cardService.approveRequest(requestId));
     }
 
@@ -287,7 +371,6 @@ public class AdminController {
             @ApiResponse(responseCode = "409", description = "Card request already declined", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<CardProcessDto> declineRequest(@PathVariable Long requestId) {
-        log.info("Decline card request with id: {}", requestId);
         return ResponseEntity.ok(cardService.declineRequest(requestId));
     }
 }
@@ -3,6 +3,7 @@ package com.example.bankcards.controller;
 import com.example.bankcards.dto.ErrorResponse;
 import com.example.bankcards.dto.JWTResponse;
 import com.example.bankcards.dto.LoginRequest;
+import com.example.bankcards.dto.RefreshRequest;
 import com.example.bankcards.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -38,4 +39,15 @@ public class AuthController {
         log.info("Request to login: {}", loginRequest.username());
         return ResponseEntity.ok(userService.login(loginRequest));
     }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh", description = "Exchange a refresh token for a new token pair")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = JWTResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Invalid, expired or reused refresh token", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<JWTResponse> refresh(@Validated @RequestBody RefreshRequest refreshRequest) {
+        log.info("Request to refresh token");
+        return ResponseEntity.ok(userService.refresh(refreshRequest));
+    }
 }
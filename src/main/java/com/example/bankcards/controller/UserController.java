@@ -4,6 +4,7 @@ import com.example.bankcards.dto.*;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.ETagUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
@@ -13,19 +14,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.security.Principal;
 
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
-@Slf4j
 @Tag(name = "Users", description = "Operations for users")
 public class UserController {
 
@@ -62,20 +63,37 @@ public class UserController {
                             type = "string"
                     ),
                     example = "asc"
+            ),
+            @Parameter(
+                    name = "withTotal",
+                    description = "Include totalElements and totalPages (runs a count query)",
+                    example = "false"
             )
     })
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = CardResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ResponseEntity<Page<CardResponseDto>> getAllCards(@Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
-                                                             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
-                                                             @Parameter(description = "Sort by field") @RequestParam(defaultValue = "id") String sortBy,
-                                                             @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
-                                                             Principal principal) {
-        log.info("Get user cards");
+    public ResponseEntity<PageResponse<CardResponseDto>> getAllCards(@Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
+                                                                     @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
+                                                                     @Parameter(description = "Sort by field") @RequestParam(defaultValue = "id") String sortBy,
+                                                                     @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+                                                                     @Parameter(description = "Include totals") @RequestParam(defaultValue = "false") boolean withTotal,
+                                                                     Principal principal,
+                                                                     WebRequest webRequest) {
         User user = (User) ((UsernamePasswordAuthenticationToken) principal).getPrincipal();
-        return ResponseEntity.ok(cardService.getAllCardsByUser(page, size, sortBy, sortDir, user));
+
+        String eTag = ETagUtil.listingETag(cardService.getCardsVersionByUser(user), page, size, sortBy, sortDir, withTotal,
+                webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(PageResponse.of(cardService.getAllCardsByUser(page, size, sortBy, sortDir, withTotal, user)));
     }
 
     @PostMapping("/request/{cardId}")
@@ -85,7 +103,6 @@ public class UserController {
             @ApiResponse(responseCode = "409", description = "Not your card", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<CardProcessDto> sendRequest(@PathVariable("cardId") Long cardId, Principal principal) {
-        log.info("Send card request {}", cardId);
         User user = (User) ((UsernamePasswordAuthenticationToken) principal).getPrincipal();
         return ResponseEntity.ok(cardService.sendRequest(cardId, user));
     }
@@ -97,7 +114,6 @@ public class UserController {
             @ApiResponse(responseCode = "409", description = "Not your card or card not found or blocked", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<TransferDto> sendTransfer(@Validated @RequestBody TransferRequestDto transferRequestDto, Principal principal) {
-        log.info("Send transfer {}", transferRequestDto);
         User user = (User) ((UsernamePasswordAuthenticationToken) principal).getPrincipal();
         return ResponseEntity.ok(cardService.sendTransfer(transferRequestDto, user));
     }
@@ -109,7 +125,6 @@ public class UserController {
             @ApiResponse(responseCode = "404", description = "User not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<UserWithBalanceDto> getUserWithBalance(Principal principal) {
-        log.info("Get user balance");
         User user = (User) ((UsernamePasswordAuthenticationToken) principal).getPrincipal();
         return ResponseEntity.ok(userService.getUserWithBalance(user.getId()));
     }
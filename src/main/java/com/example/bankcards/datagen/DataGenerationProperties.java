@@ -0,0 +1,18 @@
+package com.example.bankcards.datagen;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("app.datagen")
+public record DataGenerationProperties(
+        @DefaultValue("42") long seed,
+        @DefaultValue("1000000") int users,
+        @DefaultValue("5") int maxCardsPerUser,
+        @DefaultValue("10000000") long transfers,
+        @DefaultValue("0.02") double blockRequestRate,
+        @DefaultValue("365") int transferDays,
+        @DefaultValue("user") String usernamePrefix,
+        @DefaultValue("10000") int chunkSize,
+        @DefaultValue("4") int parallelism
+) {
+}
@@ -0,0 +1,268 @@
+package com.example.bankcards.datagen;
+
+import com.example.bankcards.util.CardGenerator;
+import com.example.bankcards.util.EncryptedStringConverter;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads synthetic users, cards, block requests and transfers with COPY. Every chunk draws
+ * from its own random stream derived from the seed, so the generated rows do not depend on
+ * thread scheduling; only the AES-GCM IVs of the encrypted PANs differ between runs.
+ */
+@Slf4j
+public class DataGenerator {
+
+    private static final String[] FIRST_NAMES = {"Иван", "Алексей", "Мария", "Ольга", "Дмитрий", "Анна", "Сергей", "Елена", "Павел", "Наталья"};
+    private static final String[] LAST_NAMES = {"Иванов", "Петров", "Смирнов", "Кузнецов", "Попов", "Соколов", "Лебедев", "Козлов", "Новиков", "Морозов"};
+    private static final String[] DESCRIPTIONS = {"Перевод между картами", "Пополнение", "Накопления", "Оплата", ""};
+
+    private static final long CARD_COUNT_STREAM = 1;
+    private static final long ROW_STREAM = 2;
+    private static final long TRANSFER_STREAM = 3;
+
+    private final DataSource dataSource;
+    private final EncryptedStringConverter encryptor;
+    private final String passwordHash;
+    private final DataGenerationProperties properties;
+    private final OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+
+    public DataGenerator(DataSource dataSource, EncryptedStringConverter encryptor, String passwordHash, DataGenerationProperties properties) {
+        this.dataSource = dataSource;
+        this.encryptor = encryptor;
+        this.passwordHash = passwordHash;
+        this.properties = properties;
+    }
+
+    public record Summary(long users, long cards, long blockRequests, long transfers, long elapsedMillis) {
+    }
+
+    public Summary generate() throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        long userBase = maxId("users");
+        long cardBase = maxId("cards");
+
+        int userChunks = chunks(properties.users());
+        long[] chunkCardBase = new long[userChunks + 1];
+        for (int chunk = 0; chunk < userChunks; chunk++) {
+            SplittableRandom counts = random(CARD_COUNT_STREAM, chunk);
+            long cards = 0;
+            for (int i = 0; i < usersInChunk(chunk); i++) {
+                cards += cardsPerUser(counts);
+            }
+            chunkCardBase[chunk + 1] = chunkCardBase[chunk] + cards;
+        }
+        long totalCards = chunkCardBase[userChunks];
+
+        AtomicLong blockRequests = new AtomicLong();
+        runChunks(userChunks, chunk -> blockRequests.addAndGet(
+                loadUsersAndCards(chunk, userBase + (long) chunk * properties.chunkSize(), cardBase + chunkCardBase[chunk])));
+        resetSequence("users");
+        resetSequence("cards");
+        log.info("Generated {} users and {} cards", properties.users(), totalCards);
+
+        int transferChunks = (int) ((properties.transfers() + properties.chunkSize() - 1) / properties.chunkSize());
+        if (totalCards > 0) {
+            createTransferPartitions();
+            runChunks(transferChunks, chunk -> loadTransfers(chunk, cardBase, totalCards));
+        }
+        log.info("Generated {} transfers", properties.transfers());
+
+        return new Summary(properties.users(), totalCards, blockRequests.get(), totalCards > 0 ? properties.transfers() : 0,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long loadUsersAndCards(int chunk, long firstUserId, long firstCardId) throws SQLException, IOException {
+        SplittableRandom counts = random(CARD_COUNT_STREAM, chunk);
+        SplittableRandom random = random(ROW_STREAM, chunk);
+        StringBuilder users = new StringBuilder();
+        StringBuilder cards = new StringBuilder();
+        StringBuilder requests = new StringBuilder();
+        long blockRequests = 0;
+
+        long cardId = firstCardId;
+        for (int i = 0; i < usersInChunk(chunk); i++) {
+            long userId = firstUserId + i + 1;
+            String username = properties.usernamePrefix() + userId;
+            OffsetDateTime registeredAt = now.minusDays(random.nextInt(3 * 365) + 1);
+            users.append(userId).append(',')
+                    .append(text(username)).append(',')
+                    .append(text(passwordHash)).append(',')
+                    .append(text(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)])).append(',')
+                    .append(text(LAST_NAMES[random.nextInt(LAST_NAMES.length)])).append(',')
+                    .append(text(username + "@example.com")).append(',')
+                    .append(text("+79" + (100_000_000 + random.nextInt(900_000_000)))).append(',')
+                    .append("USER,")
+                    .append(random.nextInt(100) < 98).append(',')
+                    .append(registeredAt).append('\n');
+
+            int userCards = cardsPerUser(counts);
+            for (int c = 0; c < userCards; c++) {
+                cardId++;
+                boolean blocked = random.nextDouble() < properties.blockRequestRate() / 2;
+                cards.append(cardId).append(',')
+                        .append(text(encryptor.convertToDatabaseColumn(CardGenerator.generateCardNumber(random)))).append(',')
+                        .append(userId).append(',')
+                        .append(LocalDate.from(registeredAt).plusYears(4 + random.nextInt(2))).append(',')
+                        .append(balance(random)).append(',')
+                        .append(blocked ? "BLOCKED" : "ACTIVE").append(',')
+                        .append(registeredAt).append('\n');
+
+                if (blocked || random.nextDouble() < properties.blockRequestRate() / 2) {
+                    String status = blocked ? "APPROVED" : random.nextBoolean() ? "PENDING" : "REJECTED";
+                    OffsetDateTime requestedAt = registeredAt.plusDays(random.nextInt(30) + 1);
+                    requests.append(cardId).append(',')
+                            .append(userId).append(',')
+                            .append(requestedAt).append(',')
+                            .append(status).append(',')
+                            .append("PENDING".equals(status) ? "" : requestedAt.plusHours(random.nextInt(48) + 1)).append('\n');
+                    blockRequests++;
+                }
+            }
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            copy.copyIn("COPY users (id, username, password, first_name, last_name, email, phone, role, is_active, created_at) FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(users.toString()));
+            copy.copyIn("COPY cards (id, card_number, owner_id, expiration_date, balance, status, created_at) FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(cards.toString()));
+            copy.copyIn("COPY card_block_requests (card_id, requested_by, request_date, status, processed_at) FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(requests.toString()));
+            connection.commit();
+        }
+        return blockRequests;
+    }
+
+    private long loadTransfers(int chunk, long cardBase, long totalCards) throws SQLException, IOException {
+        SplittableRandom random = random(TRANSFER_STREAM, chunk);
+        long rows = Math.min(properties.chunkSize(), properties.transfers() - (long) chunk * properties.chunkSize());
+        StringBuilder transfers = new StringBuilder();
+
+        for (long i = 0; i < rows; i++) {
+            // A small set of cards sends most of the traffic, and most transfers are recent.
+            long source = cardBase + 1 + (long) (totalCards * Math.pow(random.nextDouble(), 3));
+            long target = cardBase + 1 + random.nextLong(totalCards);
+            if (target == source) {
+                target = target == cardBase + totalCards ? cardBase + 1 : target + 1;
+            }
+            long seconds = (long) (properties.transferDays() * 86_400L * Math.pow(random.nextDouble(), 2));
+            transfers.append(source).append(',')
+                    .append(target).append(',')
+                    .append(amount(random)).append(',')
+                    .append("RUB,")
+                    .append(now.minusSeconds(seconds)).append(',')
+                    .append(text(DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)])).append('\n');
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY transfers (source_card_id, target_card_id, amount, currency, transfer_date, description) FROM STDIN WITH (FORMAT csv)",
+                            new StringReader(transfers.toString()));
+        }
+        return rows;
+    }
+
+    private void runChunks(int chunks, ChunkTask task) throws InterruptedException, SQLException {
+        ExecutorService executor = Executors.newFixedThreadPool(properties.parallelism());
+        try {
+            List<Future<Long>> futures = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int current = chunk;
+                futures.add(executor.submit(() -> task.run(current)));
+            }
+            for (Future<Long> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new IllegalStateException("Data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int chunks(long rows) {
+        return (int) ((rows + properties.chunkSize() - 1) / properties.chunkSize());
+    }
+
+    private int usersInChunk(int chunk) {
+        return Math.min(properties.chunkSize(), properties.users() - chunk * properties.chunkSize());
+    }
+
+    private int cardsPerUser(SplittableRandom random) {
+        // Most users hold one card, a long tail holds up to maxCardsPerUser.
+        return 1 + (int) ((properties.maxCardsPerUser() - 1) * Math.pow(random.nextDouble(), 3) + 0.5);
+    }
+
+    private SplittableRandom random(long stream, long chunk) {
+        return new SplittableRandom(properties.seed() ^ stream * 0x9E3779B97F4A7C15L ^ chunk * 0xC2B2AE3D27D4EB4FL);
+    }
+
+    private static String balance(SplittableRandom random) {
+        return String.format(Locale.ROOT, "%.2f", Math.min(Math.exp(9 + 1.5 * random.nextGaussian()), 9_999_999_999.0));
+    }
+
+    private static String amount(SplittableRandom random) {
+        return String.format(Locale.ROOT, "%.2f", Math.min(Math.exp(6 + 1.2 * random.nextGaussian()), 1_000_000.0));
+    }
+
+    private static String text(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private long maxId(String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private void createTransferPartitions() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT create_transfer_partitions(CURRENT_DATE - ?, 0)")) {
+            statement.setInt(1, properties.transferDays());
+            statement.execute();
+        }
+    }
+
+    private void resetSequence(String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), (SELECT MAX(id) FROM " + table + "))");
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        long run(int chunk) throws SQLException, IOException;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.bankcards.datagen;
+
+import com.example.bankcards.util.EncryptedStringConverter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+@Profile("datagen")
+@EnableConfigurationProperties(DataGenerationProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class DataGeneratorRunner implements ApplicationRunner {
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final DataGenerationProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.encryption.key}")
+    private String encryptionKey;
+
+    @Value("${app.datagen.password}")
+    private String password;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("Generating data: {}", properties);
+        DataGenerator.Summary summary = new DataGenerator(dataSource, EncryptedStringConverter.withKey(encryptionKey),
+                passwordEncoder.encode(password), properties).generate();
+        log.info("Generated {} users, {} cards, {} block requests, {} transfers in {} ms",
+                summary.users(), summary.cards(), summary.blockRequests(), summary.transfers(), summary.elapsedMillis());
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
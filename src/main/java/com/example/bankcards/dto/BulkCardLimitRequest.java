@@ -0,0 +1,10 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+/**
+ * Cards to change, as in {@link BulkCardStatusRequest}, and the limits to set on them. A null
+ * limit removes that limit.
+ */
+public record BulkCardLimitRequest(List<Long> ids, CardFilter filter, Double dailyLimit, Double monthlyLimit) {
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+/**
+ * Either explicit card ids or a filter; a request without any criterion is rejected rather
+ * than applied to every card.
+ */
+public record BulkCardStatusRequest(List<Long> ids, CardFilter filter) {
+}
@@ -8,7 +8,9 @@ public record CardResponseDto(
         String ownerName,
         Double balance,
         String status,
-        String createdAt
+        String createdAt,
+        Double dailyLimit,
+        Double monthlyLimit
 ) {
 
     public static CardResponseDto fromEntity(Card card) {
@@ -21,7 +23,9 @@ public record CardResponseDto(
                 fullName,
                 card.getBalance(),
                 card.getStatus().name(),
-                card.getCreatedAt().toString()
+                card.getCreatedAt().toString(),
+                card.getDailyLimit(),
+                card.getMonthlyLimit()
         );
     }
 
@@ -0,0 +1,6 @@
+package com.example.bankcards.dto;
+
+import java.time.OffsetDateTime;
+
+public record ListingVersion(Long count, OffsetDateTime lastUpdatedAt) {
+}
@@ -0,0 +1,31 @@
+package com.example.bankcards.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Listing envelope. {@code totalElements} and {@code totalPages} are only present when the
+ * caller asked for totals, otherwise no count query is run and {@code hasNext} is the only
+ * paging hint.
+ */
+@JsonSerialize(using = PageResponseSerializer.class)
+public record PageResponse<T>(
+        List<T> content,
+        int page,
+        int size,
+        boolean hasNext,
+        Long totalElements,
+        Integer totalPages
+) {
+
+    public static <T> PageResponse<T> of(Slice<T> slice) {
+        if (slice instanceof Page<T> page) {
+            return new PageResponse<>(page.getContent(), page.getNumber(), page.getSize(), page.hasNext(),
+                    page.getTotalElements(), page.getTotalPages());
+        }
+        return new PageResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(), null, null);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.bankcards.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes the envelope field by field and streams the items with a serializer resolved once per
+ * item type, instead of going through bean introspection of the wrapper.
+ */
+public class PageResponseSerializer extends StdSerializer<PageResponse<?>> {
+
+    @SuppressWarnings("unchecked")
+    public PageResponseSerializer() {
+        super((Class<PageResponse<?>>) (Class<?>) PageResponse.class);
+    }
+
+    @Override
+    public void serialize(PageResponse<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeFieldName("content");
+        gen.writeStartArray(value.content(), value.content().size());
+        Class<?> itemType = null;
+        JsonSerializer<Object> itemSerializer = null;
+        for (Object item : value.content()) {
+            if (item == null) {
+                provider.defaultSerializeNull(gen);
+                continue;
+            }
+            if (item.getClass() != itemType) {
+                itemType = item.getClass();
+                itemSerializer = provider.findValueSerializer(itemType);
+            }
+            itemSerializer.serialize(item, gen, provider);
+        }
+        gen.writeEndArray();
+        gen.writeNumberField("page", value.page());
+        gen.writeNumberField("size", value.size());
+        gen.writeBooleanField("hasNext", value.hasNext());
+        if (value.totalElements() != null) {
+            gen.writeNumberField("totalElements", value.totalElements());
+            gen.writeNumberField("totalPages", value.totalPages());
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record RefreshRequest(@NotNull String refreshToken) {
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.User;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Optional user criteria. Username and email match case-insensitively by prefix, {@code name}
+ * matches any part of the first or last name and needs at least three characters.
+ */
+public record UserFilter(
+        String usernamePrefix,
+        String emailPrefix,
+        String name,
+        User.Role role,
+        Boolean active,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdTo
+) {
+    public static final UserFilter NONE = new UserFilter(null, null, null, null, null, null, null);
+
+    public boolean isEmpty() {
+        return equals(NONE);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.bankcards.entity;
 import com.example.bankcards.util.EncryptedStringConverter;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -10,8 +11,13 @@ import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Deliberately not in the second-level cache: balance and status change on every transfer and
+ * the local cache has no cross-node invalidation, so another instance could serve stale values.
+ */
 @Entity
 @Table(name = "cards")
+@SQLRestriction("deleted_at IS NULL")
 @Getter
 @Setter
 @Builder
@@ -47,6 +53,23 @@ public class Card {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "deleted_at")
+    private OffsetDateTime deletedAt;
+
+    @Column(name = "daily_limit")
+    private Double dailyLimit;
+
+    @Column(name = "monthly_limit")
+    private Double monthlyLimit;
+
+    @Embedded
+    @Builder.Default
+    private CardSpending spending = new CardSpending();
+
     @OneToMany(mappedBy = "sourceCard", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Transfer> outgoingTransfers = new ArrayList<>();
 
@@ -56,6 +79,15 @@ public class Card {
     @OneToMany(mappedBy = "card", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<CardBlockRequest> blockRequests = new ArrayList<>();
 
+    /**
+     * Whether sending {@code amount} on {@code date} keeps the card within its limits; a missing
+     * limit does not restrict.
+     */
+    public boolean isWithinLimits(double amount, LocalDate date) {
+        return (dailyLimit == null || spending.spentOn(date) + amount <= dailyLimit)
+                && (monthlyLimit == null || spending.spentInMonthOf(date) + amount <= monthlyLimit);
+    }
+
     @PrePersist
     public void onCreate() {
         createdAt = OffsetDateTime.now();
@@ -41,6 +41,10 @@ public class CardBlockRequest {
     @Column(name = "processed_at")
     private OffsetDateTime processedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         requestDate = OffsetDateTime.now();
@@ -0,0 +1,42 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * What a card has sent on {@code day} and in that day's month. Totals for an earlier day read
+ * as zero and are replaced on the next {@link #record}, so nothing resets them at midnight.
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+public class CardSpending {
+
+    @Column(name = "spent_on")
+    private LocalDate day;
+
+    @Column(name = "spent_today", nullable = false)
+    private double today;
+
+    @Column(name = "spent_this_month", nullable = false)
+    private double thisMonth;
+
+    public double spentOn(LocalDate date) {
+        return date.equals(day) ? today : 0;
+    }
+
+    public double spentInMonthOf(LocalDate date) {
+        return day != null && YearMonth.from(day).equals(YearMonth.from(date)) ? thisMonth : 0;
+    }
+
+    public void record(double amount, LocalDate date) {
+        today = spentOn(date) + amount;
+        thisMonth = spentInMonthOf(date) + amount;
+        day = date;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.event;
+
+import com.example.bankcards.dto.CardProcessDto;
+
+public record CardRequestEvent(Type type, CardProcessDto request) {
+    public enum Type {
+        CREATED, PROCESSED
+    }
+}
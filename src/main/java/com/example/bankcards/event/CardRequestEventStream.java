@@ -0,0 +1,198 @@
+package com.example.bankcards.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed card request events out to SSE subscribers. Ids and the replay buffer are
+ * owned by a single dispatcher thread, so committing transactions never block on a client
+ * and every subscriber sees events in id order. Writes happen per subscriber from a bounded
+ * queue; a subscriber that falls a full queue behind is dropped and catches up by
+ * reconnecting with {@code Last-Event-ID}, so one slow client never stalls the others.
+ */
+@Component
+@Slf4j
+public class CardRequestEventStream implements DisposableBean {
+
+    private final Entry[] buffer;
+    private final long timeout;
+    private final int queueCapacity;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Executor dispatcher;
+    private final Executor senders;
+
+    private long lastId;
+
+    @Autowired
+    public CardRequestEventStream(@Value("${app.requests.stream.buffer-size:256}") int bufferSize,
+                                  @Value("${app.requests.stream.timeout:1800000}") long timeout) {
+        this(bufferSize, timeout,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "card-request-stream");
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("card-request-sender-", 0).factory()));
+    }
+
+    CardRequestEventStream(int bufferSize, long timeout, Executor dispatcher, Executor senders) {
+        this.buffer = new Entry[bufferSize];
+        this.timeout = timeout;
+        this.queueCapacity = bufferSize * 2;
+        this.dispatcher = dispatcher;
+        this.senders = senders;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCardRequestEvent(CardRequestEvent event) {
+        dispatcher.execute(() -> {
+            Entry entry = new Entry(++lastId, event);
+            buffer[slot(entry.id())] = entry;
+            subscribers.forEach(subscriber -> subscriber.offer(entry));
+        });
+    }
+
+    /**
+     * @param lastEventId raw {@code Last-Event-ID} header; missing or malformed values start
+     *                    a live-only stream, ids outside the retained window replay all of it
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = createEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscriber.close());
+
+        Long resumeAfter = parseEventId(lastEventId);
+        dispatcher.execute(() -> {
+            if (resumeAfter == null || replay(subscriber, resumeAfter)) {
+                subscribers.add(subscriber);
+            }
+        });
+        return emitter;
+    }
+
+    SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    private boolean replay(Subscriber subscriber, long lastEventId) {
+        long oldest = Math.max(1, lastId - buffer.length + 1);
+        // An id ahead of ours was issued before a restart, so everything retained is new to the client
+        long from = lastEventId >= oldest && lastEventId <= lastId ? lastEventId + 1 : oldest;
+        for (long id = from; id <= lastId; id++) {
+            Entry entry = buffer[slot(id)];
+            if (entry != null && entry.id() == id && !subscriber.offer(entry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int slot(long id) {
+        return (int) (id % buffer.length);
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed Last-Event-ID: {}", lastEventId);
+            return null;
+        }
+    }
+
+    private boolean send(SseEmitter emitter, Entry entry) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(entry.id()))
+                    .name(entry.event().type().name())
+                    .data(entry.event().request()));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.debug("Dropping card request subscriber: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (dispatcher instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        if (senders instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private record Entry(long id, CardRequestEvent event) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Entry> pending = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Called on the dispatcher only, never blocks on the client.
+         */
+        private boolean offer(Entry entry) {
+            if (closed.get()) {
+                return false;
+            }
+            if (!pending.offer(entry)) {
+                log.debug("Dropping card request subscriber: {} events behind", queueCapacity);
+                close();
+                senders.execute(emitter::complete);
+                return false;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+            return true;
+        }
+
+        private void drain() {
+            do {
+                Entry entry;
+                while (!closed.get() && (entry = pending.poll()) != null) {
+                    if (!send(emitter, entry)) {
+                        close();
+                    }
+                }
+                draining.set(false);
+            } while (!closed.get() && !pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void close() {
+            closed.set(true);
+            subscribers.remove(this);
+            pending.clear();
+        }
+    }
+}
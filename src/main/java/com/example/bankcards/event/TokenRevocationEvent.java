@@ -0,0 +1,4 @@
+package com.example.bankcards.event;
+
+public record TokenRevocationEvent(Long userId, long notBefore) {
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.exception;
+
+/**
+ * Expected business rejection. The stack trace is not captured: the error code identifies
+ * the rejection and filling in the trace dominates the cost of throwing under error spikes.
+ */
+public abstract class DomainException extends RuntimeException {
+    private final ErrorCode errorCode;
+
+    protected DomainException(ErrorCode errorCode, String message) {
+        super(message, null, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.bankcards.exception;
+
+import com.example.bankcards.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Catalogue of error responses with fixed messages. Payloads, response entities and counters
+ * are created once, so rejecting a request allocates nothing beyond the exception itself.
+ */
+public enum ErrorCode {
+    INTEGRITY_VIOLATION(HttpStatus.CONFLICT, "Cannot assign role due to constraint violation"),
+    CONCURRENT_MODIFICATION(HttpStatus.CONFLICT, "Resource was modified concurrently, please retry"),
+    ACCESS_DENIED(HttpStatus.FORBIDDEN, "You don't have permission to perform this action"),
+    INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred"),
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded"),
+
+    INVALID_REFRESH_TOKEN(HttpStatus.UNAUTHORIZED, "Invalid refresh token"),
+
+    USER_NOT_FOUND(HttpStatus.NOT_FOUND, "User not found"),
+    USER_ALREADY_DEACTIVATED(HttpStatus.CONFLICT, "User already deactivated"),
+    USER_ALREADY_ACTIVE(HttpStatus.CONFLICT, "User already activated"),
+    USER_ALREADY_HAS_ROLE(HttpStatus.CONFLICT, "User already has this role"),
+    NOT_USER_CARD(HttpStatus.CONFLICT, "Its not your card"),
+
+    CARD_NOT_FOUND(HttpStatus.NOT_FOUND, "Card not found"),
+    CARD_ALREADY_ACTIVE(HttpStatus.CONFLICT, "Card already active"),
+    CARD_ALREADY_BLOCKED(HttpStatus.CONFLICT, "Card already blocked"),
+    CARD_BLOCKED(HttpStatus.CONFLICT, "Card blocked"),
+    NOT_ENOUGH_BALANCE(HttpStatus.CONFLICT, "Not enough balance"),
+    SPENDING_LIMIT_EXCEEDED(HttpStatus.CONFLICT, "Card spending limit exceeded"),
+    VELOCITY_LIMIT_EXCEEDED(HttpStatus.TOO_MANY_REQUESTS, "Too many transfers from this card, try again later"),
+
+    REQUEST_NOT_FOUND(HttpStatus.NOT_FOUND, "Request not found"),
+    REQUEST_ALREADY_APPROVED(HttpStatus.CONFLICT, "Request already approved"),
+    REQUEST_ALREADY_DENIED(HttpStatus.CONFLICT, "Request already declined");
+
+    private final HttpStatus status;
+    private final ErrorResponse response;
+    private final ResponseEntity<ErrorResponse> responseEntity;
+    private final Counter counter;
+
+    ErrorCode(HttpStatus status, String message) {
+        this.status = status;
+        this.response = new ErrorResponse(name(), message);
+        this.responseEntity = ResponseEntity.status(status).body(response);
+        this.counter = Metrics.counter("bankcards.errors", "code", name(), "status", String.valueOf(status.value()));
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public ErrorResponse getResponse() {
+        return response;
+    }
+
+    public ResponseEntity<ErrorResponse> toResponseEntity() {
+        record();
+        return responseEntity;
+    }
+
+    /**
+     * Counts the error for callers that write the response themselves, such as servlet filters.
+     */
+    public void record() {
+        counter.increment();
+    }
+}
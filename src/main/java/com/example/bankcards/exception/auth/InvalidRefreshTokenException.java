@@ -0,0 +1,10 @@
+package com.example.bankcards.exception.auth;
+
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class InvalidRefreshTokenException extends DomainException {
+    public InvalidRefreshTokenException(String message) {
+        super(ErrorCode.INVALID_REFRESH_TOKEN, message);
+    }
+}
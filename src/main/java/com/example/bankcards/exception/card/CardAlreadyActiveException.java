@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.card;
 
-public class CardAlreadyActiveException extends RuntimeException {
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class CardAlreadyActiveException extends DomainException {
     public CardAlreadyActiveException(String message) {
-        super(message);
+        super(ErrorCode.CARD_ALREADY_ACTIVE, message);
     }
 }
@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.card;
 
-public class CardAlreadyBlockedException extends RuntimeException {
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class CardAlreadyBlockedException extends DomainException {
     public CardAlreadyBlockedException(String message) {
-        super(message);
+        super(ErrorCode.CARD_ALREADY_BLOCKED, message);
     }
 }
@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.card;
 
-public class CardBlockedException extends RuntimeException {
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class CardBlockedException extends DomainException {
     public CardBlockedException(String message) {
-        super(message);
+        super(ErrorCode.CARD_BLOCKED, message);
     }
 }
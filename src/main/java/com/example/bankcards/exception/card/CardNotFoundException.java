@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.card;
 
-public class CardNotFoundException extends RuntimeException {
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class CardNotFoundException extends DomainException {
     public CardNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.CARD_NOT_FOUND, message);
     }
 }
@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.card;
 
-public class NotEnoughBalanceException extends RuntimeException {
-  public NotEnoughBalanceException(String message) {
-    super(message);
-  }
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class NotEnoughBalanceException extends DomainException {
+    public NotEnoughBalanceException(String message) {
+        super(ErrorCode.NOT_ENOUGH_BALANCE, message);
+    }
 }
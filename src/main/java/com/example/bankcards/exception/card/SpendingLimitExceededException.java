@@ -0,0 +1,10 @@
+package com.example.bankcards.exception.card;
+
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class SpendingLimitExceededException extends DomainException {
+    public SpendingLimitExceededException(String message) {
+        super(ErrorCode.SPENDING_LIMIT_EXCEEDED, message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.exception.card;
+
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class VelocityLimitExceededException extends DomainException {
+    public VelocityLimitExceededException(String message) {
+        super(ErrorCode.VELOCITY_LIMIT_EXCEEDED, message);
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.request;
 
-public class RequestAlreadyApprovedException extends RuntimeException {
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class RequestAlreadyApprovedException extends DomainException {
     public RequestAlreadyApprovedException(String message) {
-        super(message);
+        super(ErrorCode.REQUEST_ALREADY_APPROVED, message);
     }
 }
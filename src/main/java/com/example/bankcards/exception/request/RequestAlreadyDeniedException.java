@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.request;
 
-public class RequestAlreadyDeniedException extends RuntimeException {
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class RequestAlreadyDeniedException extends DomainException {
     public RequestAlreadyDeniedException(String message) {
-        super(message);
+        super(ErrorCode.REQUEST_ALREADY_DENIED, message);
     }
 }
@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.request;
 
-public class RequestNotFoundException extends RuntimeException {
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class RequestNotFoundException extends DomainException {
     public RequestNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.REQUEST_NOT_FOUND, message);
     }
 }
@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.user;
 
-public class NotUserCardException extends RuntimeException {
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class NotUserCardException extends DomainException {
     public NotUserCardException(String message) {
-        super(message);
+        super(ErrorCode.NOT_USER_CARD, message);
     }
 }
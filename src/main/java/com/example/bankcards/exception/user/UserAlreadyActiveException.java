@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.user;
 
-public class UserAlreadyActiveException extends RuntimeException {
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class UserAlreadyActiveException extends DomainException {
     public UserAlreadyActiveException(String message) {
-        super(message);
+        super(ErrorCode.USER_ALREADY_ACTIVE, message);
     }
 }
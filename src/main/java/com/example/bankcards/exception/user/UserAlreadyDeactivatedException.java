@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.user;
 
-public class UserAlreadyDeactivatedException extends RuntimeException {
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class UserAlreadyDeactivatedException extends DomainException {
     public UserAlreadyDeactivatedException(String message) {
-        super(message);
+        super(ErrorCode.USER_ALREADY_DEACTIVATED, message);
     }
 }
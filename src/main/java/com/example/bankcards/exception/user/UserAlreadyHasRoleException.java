@@ -1,7 +1,10 @@
 package com.example.bankcards.exception.user;
 
-public class UserAlreadyHasRoleException extends RuntimeException {
+import com.example.bankcards.exception.DomainException;
+import com.example.bankcards.exception.ErrorCode;
+
+public class UserAlreadyHasRoleException extends DomainException {
     public UserAlreadyHasRoleException(String message) {
-        super(message);
+        super(ErrorCode.USER_ALREADY_HAS_ROLE, message);
     }
 }
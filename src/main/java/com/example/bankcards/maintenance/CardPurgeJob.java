@@ -0,0 +1,69 @@
+package com.example.bankcards.maintenance;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Hard-deletes cards that were soft-deleted longer than the retention ago. Related rows are
+ * removed in small batches, each in its own short transaction, before the card row itself, so
+ * no statement cascades over a card's whole history or holds locks for long. With the default
+ * retention their transfers have usually been archived with their partitions already.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cards.purge.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(CardPurgeProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class CardPurgeJob {
+    private static final String[] RELATED_DELETES = {
+            "DELETE FROM card_block_requests WHERE id IN (SELECT id FROM card_block_requests WHERE card_id = ANY(?) LIMIT ?)",
+            "DELETE FROM transfers WHERE (id, transfer_date) IN (SELECT id, transfer_date FROM transfers WHERE source_card_id = ANY(?) LIMIT ?)",
+            "DELETE FROM transfers WHERE (id, transfer_date) IN (SELECT id, transfer_date FROM transfers WHERE target_card_id = ANY(?) LIMIT ?)"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CardPurgeProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.cards.purge.interval}", initialDelayString = "${app.cards.purge.interval}")
+    public void purge() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(properties.retention());
+        long purged = 0;
+        try {
+            List<Long> cardIds;
+            while (!(cardIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM cards WHERE deleted_at < ? ORDER BY id LIMIT ?", Long.class, cutoff, properties.batchSize())).isEmpty()) {
+                purged += purgeCards(cardIds);
+            }
+        } catch (DataAccessException e) {
+            log.error("Card purge failed after {} cards", purged, e);
+            return;
+        }
+        if (purged > 0) {
+            log.info("Purged {} soft-deleted cards", purged);
+        }
+    }
+
+    private int purgeCards(List<Long> cardIds) {
+        Long[] ids = cardIds.toArray(Long[]::new);
+        for (String delete : RELATED_DELETES) {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(delete, ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+                    ps.setInt(2, properties.batchSize());
+                });
+            } while (deleted > 0);
+        }
+        return jdbcTemplate.update("DELETE FROM cards WHERE id = ANY(?) AND deleted_at IS NOT NULL",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.maintenance;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("app.cards.purge")
+public record CardPurgeProperties(boolean enabled, Duration retention, int batchSize, Duration interval) {
+}
@@ -0,0 +1,52 @@
+package com.example.bankcards.maintenance;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Deletes refresh tokens that can no longer be exchanged: expired ones and ones used longer
+ * than the retention ago. Every refresh rotates the token and inserts a row, so without this
+ * the table only grows. Used rows are kept for a while for auditing; reuse detection does not
+ * depend on them, as a missing row is treated like a used one and the family is revoked.
+ */
+@Component
+@ConditionalOnProperty(name = "app.refresh-tokens.purge.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RefreshTokenPurgeProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenPurgeJob {
+    private static final String DELETE_BATCH = """
+            DELETE FROM refresh_tokens WHERE id IN (
+                SELECT id FROM refresh_tokens WHERE expires_at < ? OR used_at < ? LIMIT ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RefreshTokenPurgeProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.refresh-tokens.purge.interval}", initialDelayString = "${app.refresh-tokens.purge.interval}")
+    public void purge() {
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime usedBefore = now.minus(properties.usedRetention());
+        long purged = 0;
+        try {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(DELETE_BATCH, now, usedBefore, properties.batchSize());
+                purged += deleted;
+            } while (deleted == properties.batchSize());
+        } catch (DataAccessException e) {
+            log.error("Refresh token purge failed after {} tokens", purged, e);
+            return;
+        }
+        if (purged > 0) {
+            log.info("Purged {} expired or used refresh tokens", purged);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.maintenance;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("app.refresh-tokens.purge")
+public record RefreshTokenPurgeProperties(boolean enabled, Duration usedRetention, int batchSize, Duration interval) {
+}
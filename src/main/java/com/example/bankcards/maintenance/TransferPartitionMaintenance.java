@@ -0,0 +1,158 @@
+package com.example.bankcards.maintenance;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps monthly partitions of {@code transfers} created ahead of time and archives expired ones:
+ * the partition is detached, exported with COPY into a gzipped CSV and dropped. A partition that
+ * was detached but not exported (e.g. the node died) is picked up on the next run, and one left
+ * pending by an interrupted {@code DETACH ... CONCURRENTLY} is finalized first. Only one node
+ * runs the job at a time thanks to a session advisory lock.
+ */
+@Component
+@ConditionalOnProperty(name = "app.transfers.partitions.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(TransferPartitionProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class TransferPartitionMaintenance {
+    private static final String LOCK_KEY = "transfer_partitions";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final DataSource dataSource;
+    private final TransferPartitionProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.transfers.partitions.cron}", zone = "UTC")
+    public void maintain() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+                log.debug("Transfer partition maintenance is running on another node");
+                return;
+            }
+            try {
+                int created = createPartitions(connection);
+                int archived = archiveExpired(connection);
+                log.info("Transfer partitions: {} created, {} archived", created, archived);
+            } finally {
+                advisoryLock(connection, "pg_advisory_unlock");
+            }
+        } catch (SQLException | IOException e) {
+            log.error("Transfer partition maintenance failed", e);
+        }
+    }
+
+    private int createPartitions(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT create_transfer_partitions(CURRENT_DATE, ?)")) {
+            statement.setInt(1, properties.monthsAhead());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    private int archiveExpired(Connection connection) throws SQLException, IOException {
+        YearMonth cutoff = YearMonth.now(ZoneOffset.UTC).minusMonths(properties.retentionMonths());
+        int archived = 0;
+        for (Map.Entry<String, PartitionState> partition : monthlyTables(connection).entrySet()) {
+            if (isExpired(partition.getKey(), cutoff)) {
+                archive(connection, partition.getKey(), partition.getValue());
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    static YearMonth monthOf(String partition) {
+        return YearMonth.parse(partition.substring("transfers_".length()), PARTITION_SUFFIX);
+    }
+
+    static boolean isExpired(String partition, YearMonth cutoff) {
+        return monthOf(partition).isBefore(cutoff);
+    }
+
+    /**
+     * Monthly tables in the current schema, mapped to how far they are from being detached.
+     */
+    private Map<String, PartitionState> monthlyTables(Connection connection) throws SQLException {
+        Map<String, PartitionState> tables = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("""
+                     SELECT c.relname, c.relispartition, COALESCE(i.inhdetachpending, false)
+                     FROM pg_class c LEFT JOIN pg_inherits i ON i.inhrelid = c.oid
+                     WHERE c.relkind = 'r' AND c.relnamespace = current_schema()::regnamespace
+                       AND c.relname ~ '^transfers_[0-9]{4}_[0-9]{2}$'
+                     ORDER BY c.relname""")) {
+            while (resultSet.next()) {
+                PartitionState state = !resultSet.getBoolean(2) ? PartitionState.DETACHED
+                        : resultSet.getBoolean(3) ? PartitionState.DETACH_PENDING : PartitionState.ATTACHED;
+                tables.put(resultSet.getString(1), state);
+            }
+        }
+        return tables;
+    }
+
+    private void archive(Connection connection, String partition, PartitionState state) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            if (state == PartitionState.ATTACHED) {
+                statement.execute("ALTER TABLE transfers DETACH PARTITION " + partition + " CONCURRENTLY");
+            } else if (state == PartitionState.DETACH_PENDING) {
+                // A failed DETACH CONCURRENTLY can only be completed, repeating it errors every time
+                statement.execute("ALTER TABLE transfers DETACH PARTITION " + partition + " FINALIZE");
+            }
+
+            Files.createDirectories(properties.archiveDir());
+            Path file = properties.archiveDir().resolve(partition + ".csv.gz");
+            Path temp = properties.archiveDir().resolve(partition + ".csv.gz.tmp");
+            long rows;
+            try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), 64 * 1024)) {
+                rows = connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyOut("COPY " + partition + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            statement.execute("DROP TABLE " + partition);
+            log.info("Archived {} ({} rows) to {}", partition, rows, file);
+        }
+    }
+
+    private boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(hashtext(?))")) {
+            statement.setString(1, LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private enum PartitionState {
+        ATTACHED, DETACH_PENDING, DETACHED
+    }
+}
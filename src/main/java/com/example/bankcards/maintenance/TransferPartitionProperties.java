@@ -0,0 +1,9 @@
+package com.example.bankcards.maintenance;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties("app.transfers.partitions")
+public record TransferPartitionProperties(boolean enabled, int monthsAhead, int retentionMonths, Path archiveDir, String cron) {
+}
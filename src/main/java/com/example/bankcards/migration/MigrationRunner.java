@@ -0,0 +1,28 @@
+package com.example.bankcards.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-shot migration job: Liquibase has already run while the context started, so the process
+ * only reports and exits. Run once per deployment with {@code SPRING_PROFILES_ACTIVE=migrate}.
+ */
+@Component
+@Profile("migrate")
+@RequiredArgsConstructor
+@Slf4j
+public class MigrationRunner implements ApplicationRunner {
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Database migrations applied");
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bankcards.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Application nodes do not run Liquibase. At startup they only compare the change sets declared
+ * in the changelog with the rows in {@code databasechangelog} (one read, no lock) and refuse to
+ * start against a schema that is behind the code.
+ */
+@Component
+@ConditionalOnProperty(name = "app.migration.verify-on-startup", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SchemaVersionVerifier implements InitializingBean {
+    private final JdbcTemplate jdbcTemplate;
+    private final ResourceLoader resourceLoader;
+    private final String changeLog;
+
+    public SchemaVersionVerifier(JdbcTemplate jdbcTemplate, ResourceLoader resourceLoader,
+                                 @Value("${spring.liquibase.change-log}") String changeLog) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.resourceLoader = resourceLoader;
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        Set<String> expected = new LinkedHashSet<>();
+        collectChangeSets(changeLog, expected);
+
+        Set<String> applied;
+        try {
+            applied = new HashSet<>(jdbcTemplate.queryForList("SELECT id || ':' || author FROM databasechangelog", String.class));
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Database schema is not migrated, run the application with the migrate profile first", e);
+        }
+
+        expected.removeAll(applied);
+        if (!expected.isEmpty()) {
+            throw new IllegalStateException("Database schema is behind the application, missing change sets " + expected
+                    + ", run the application with the migrate profile first");
+        }
+        log.info("Database schema is up to date ({} change sets)", applied.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collectChangeSets(String location, Set<String> changeSets) throws IOException {
+        Map<String, Object> document;
+        try (InputStream in = resourceLoader.getResource(location.contains(":") ? location : "classpath:" + location).getInputStream()) {
+            document = new Yaml().load(in);
+        }
+        for (Map<String, Object> entry : (List<Map<String, Object>>) document.get("databaseChangeLog")) {
+            if (entry.get("include") instanceof Map<?, ?> include) {
+                collectChangeSets(String.valueOf(include.get("file")), changeSets);
+            } else if (entry.get("changeSet") instanceof Map<?, ?> changeSet) {
+                changeSets.add(changeSet.get("id") + ":" + changeSet.get("author"));
+            }
+        }
+    }
+}
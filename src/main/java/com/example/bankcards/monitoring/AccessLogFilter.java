@@ -0,0 +1,95 @@
+package com.example.bankcards.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One structured event per request. Successful requests are sampled per endpoint, server
+ * errors are always logged. The request id is kept in the MDC so every event logged while
+ * handling the request carries it. The user id is put in the MDC by the JWT filter, which has
+ * already cleared it when this event is written, so it is taken from the request attribute.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.access-log.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(AccessLogProperties.class)
+@Slf4j
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_KEY = "request_id";
+    public static final String USER_ID_KEY = "user_id";
+
+    private final AccessLogProperties properties;
+
+    public AccessLogFilter(AccessLogProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isBlank() || requestId.length() > 64) {
+            requestId = UUID.randomUUID().toString();
+        }
+        MDC.put(REQUEST_ID_KEY, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            try {
+                logRequest(request, response, System.nanoTime() - start);
+            } finally {
+                MDC.remove(REQUEST_ID_KEY);
+            }
+        }
+    }
+
+    private void logRequest(HttpServletRequest request, HttpServletResponse response, long elapsedNanos) {
+        String endpoint = request.getMethod() + " " + pattern(request);
+        int status = response.getStatus();
+        boolean serverError = status >= 500;
+        if (!serverError && ThreadLocalRandom.current().nextDouble() >= properties.sampleRate(endpoint)) {
+            return;
+        }
+
+        LoggingEventBuilder event = (serverError ? log.atWarn() : log.atInfo())
+                .addKeyValue("endpoint", endpoint)
+                .addKeyValue("status", status)
+                .addKeyValue("latency_ms", TimeUnit.NANOSECONDS.toMicros(elapsedNanos) / 1000.0);
+        Object userId = request.getAttribute(USER_ID_KEY);
+        if (userId != null) {
+            event = event.addKeyValue(USER_ID_KEY, userId);
+        }
+        event.log("access");
+    }
+
+    private String pattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.monitoring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Sample rates are keyed by "METHOD /path/pattern"; endpoints without an entry use the default.
+ */
+@ConfigurationProperties("app.access-log")
+public record AccessLogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("0.1") double defaultSampleRate,
+        Map<String, Double> sampleRates
+) {
+    public AccessLogProperties {
+        sampleRates = sampleRates == null ? Map.of() : Map.copyOf(sampleRates);
+    }
+
+    public double sampleRate(String endpoint) {
+        return sampleRates.getOrDefault(endpoint, defaultSampleRate);
+    }
+}
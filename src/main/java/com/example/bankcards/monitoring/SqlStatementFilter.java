@@ -0,0 +1,72 @@
+package com.example.bankcards.monitoring;
+
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs ahead of the security chain so statements issued while authenticating are attributed
+ * to the request as well.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    @Value("${app.sql-monitor.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    @Value("${app.sql-monitor.log-sample-rate:0.01}")
+    private double logSampleRate;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        SqlStatementStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            record(request, SqlStatementStats.end());
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        String method = request.getMethod();
+        String uri = endpoint(request);
+        long sqlMillis = TimeUnit.NANOSECONDS.toMillis(stats.getExecutionNanos());
+
+        Metrics.summary("bankcards.sql.statements", "method", method, "uri", uri).record(stats.getCount());
+        Metrics.timer("bankcards.sql.time", "method", method, "uri", uri).record(stats.getExecutionNanos(), TimeUnit.NANOSECONDS);
+
+        Map<String, Integer> repeated = stats.getRepeatedStatements(nPlusOneThreshold);
+        if (!repeated.isEmpty()) {
+            Metrics.counter("bankcards.sql.n_plus_one", "method", method, "uri", uri).increment();
+            log.warn("sql method={} uri={} statements={} sql_time_ms={} repeated={}", method, uri, stats.getCount(), sqlMillis, repeated);
+        } else if (ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            log.info("sql method={} uri={} statements={} sql_time_ms={}", method, uri, stats.getCount(), sqlMillis);
+        }
+    }
+
+    private String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
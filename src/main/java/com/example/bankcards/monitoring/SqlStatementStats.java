@@ -0,0 +1,68 @@
+package com.example.bankcards.monitoring;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL issued by the current thread between {@link #begin()} and {@link #end()}. Statements
+ * from other threads, such as async dispatches, are not attributed to the request.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> current = new ThreadLocal<>();
+
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int count;
+    private long executionNanos;
+
+    private SqlStatementStats() {
+    }
+
+    public static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats();
+        current.set(stats);
+        return stats;
+    }
+
+    public static SqlStatementStats end() {
+        SqlStatementStats stats = current.get();
+        current.remove();
+        return stats;
+    }
+
+    static SqlStatementStats current() {
+        return current.get();
+    }
+
+    void onStatement(String sql) {
+        count++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+
+    void onExecution(long nanos) {
+        executionNanos += nanos;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    public Map<String, Integer> getStatements() {
+        return Map.copyOf(statements);
+    }
+
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statements.forEach((sql, times) -> {
+            if (times >= threshold) {
+                repeated.put(sql, times);
+            }
+        });
+        return repeated;
+    }
+}
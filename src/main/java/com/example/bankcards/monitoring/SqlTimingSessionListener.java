@@ -0,0 +1,38 @@
+package com.example.bankcards.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Created by Hibernate for every session, so the start timestamp needs no synchronisation.
+ */
+public class SqlTimingSessionListener implements SessionEventListener {
+
+    private long executionStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.onExecution(System.nanoTime() - executionStart);
+        }
+    }
+}
@@ -1,7 +1,39 @@
 package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.CardBlockRequest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+/**
+ * Requests of soft-deleted cards are left out of every read, since {@code Card}'s
+ * {@code @SQLRestriction} would hide the card they point to until the purge job removes them.
+ */
 public interface CardBlockRequestRepository extends JpaRepository<CardBlockRequest, Long> {
-}
\ No newline at end of file
+    @Override
+    @EntityGraph(attributePaths = {"card", "requestedBy"})
+    @Query(value = "SELECT r FROM CardBlockRequest r WHERE r.card.deletedAt IS NULL",
+            countQuery = "SELECT COUNT(r) FROM CardBlockRequest r WHERE r.card.deletedAt IS NULL")
+    Page<CardBlockRequest> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"card", "requestedBy"})
+    @Query("SELECT r FROM CardBlockRequest r WHERE r.card.deletedAt IS NULL")
+    Slice<CardBlockRequest> findSliceBy(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"card", "requestedBy"})
+    @Query("SELECT r FROM CardBlockRequest r WHERE r.id = :id AND r.card.deletedAt IS NULL")
+    Optional<CardBlockRequest> findWithLiveCardById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE CardBlockRequest r SET r.status = com.example.bankcards.entity.CardBlockRequest.Status.REJECTED, r.processedAt = :now, r.version = r.version + 1 " +
+            "WHERE r.card.id = :cardId AND r.status = com.example.bankcards.entity.CardBlockRequest.Status.PENDING")
+    int rejectPendingByCardId(@Param("cardId") Long cardId, @Param("now") OffsetDateTime now);
+}
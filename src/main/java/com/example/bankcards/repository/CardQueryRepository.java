@@ -0,0 +1,25 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardFilter;
+import com.example.bankcards.entity.Card;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public interface CardQueryRepository {
+    /**
+     * Cards matching the filter with their owners fetched; a {@link org.springframework.data.domain.Page} when {@code withTotal}.
+     */
+    Slice<Card> search(CardFilter filter, Pageable pageable, boolean withTotal);
+
+    /**
+     * Next chunk of ids matching the filter whose status differs from {@code target}, in id order after {@code afterId}.
+     */
+    List<Long> findIdsForStatusChange(CardFilter filter, Card.Status target, long afterId, int limit);
+
+    /**
+     * Next chunk of ids matching the filter, in id order after {@code afterId}.
+     */
+    List<Long> findIdsAfter(CardFilter filter, long afterId, int limit);
+}
@@ -0,0 +1,89 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.CardFilter;
+import com.example.bankcards.entity.Card;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CardQueryRepositoryImpl implements CardQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Card> search(CardFilter filter, Pageable pageable, boolean withTotal) {
+        return CriteriaSlices.fetch(entityManager, Card.class, pageable, withTotal,
+                (cb, card) -> predicates(cb, card, filter),
+                card -> card.fetch("owner"));
+    }
+
+    @Override
+    @Transactional
+    public List<Long> findIdsForStatusChange(CardFilter filter, Card.Status target, long afterId, int limit) {
+        return findIds(filter, target, afterId, limit);
+    }
+
+    @Override
+    @Transactional
+    public List<Long> findIdsAfter(CardFilter filter, long afterId, int limit) {
+        return findIds(filter, null, afterId, limit);
+    }
+
+    private List<Long> findIds(CardFilter filter, Card.Status excludedStatus, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Card> card = query.from(Card.class);
+
+        List<Predicate> predicates = predicates(cb, card, filter);
+        predicates.add(cb.greaterThan(card.<Long>get("id"), afterId));
+        if (excludedStatus != null) {
+            predicates.add(cb.notEqual(card.get("status"), excludedStatus));
+        }
+
+        query.select(card.<Long>get("id"))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(card.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private List<Predicate> predicates(CriteriaBuilder cb, Root<Card> card, CardFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.ownerId() != null) {
+            predicates.add(cb.equal(card.get("owner").get("id"), filter.ownerId()));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(card.get("status"), filter.status()));
+        }
+        if (filter.minBalance() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(card.<Double>get("balance"), filter.minBalance()));
+        }
+        if (filter.maxBalance() != null) {
+            predicates.add(cb.lessThan(card.<Double>get("balance"), filter.maxBalance()));
+        }
+        if (filter.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(card.<OffsetDateTime>get("createdAt"), filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            predicates.add(cb.lessThan(card.<OffsetDateTime>get("createdAt"), filter.createdTo()));
+        }
+        if (filter.expiresFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(card.<OffsetDateTime>get("expirationDate"), filter.expiresFrom()));
+        }
+        if (filter.expiresTo() != null) {
+            predicates.add(cb.lessThan(card.<OffsetDateTime>get("expirationDate"), filter.expiresTo()));
+        }
+        return predicates;
+    }
+}
@@ -1,18 +1,68 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.ListingVersion;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
+
+public interface CardRepository extends JpaRepository<Card, Long>, CardQueryRepository {
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    Page<Card> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "owner")
+    Slice<Card> findSliceBy(Pageable pageable);
 
-public interface CardRepository extends JpaRepository<Card, Long> {
     Page<Card> findAllByOwner(User user, Pageable pageable);
 
+    Slice<Card> findSliceByOwner(User user, Pageable pageable);
+
+    @Lock(LockModeType.OPTIMISTIC)
+    @Query("SELECT c FROM Card c WHERE c.id = :id")
+    Optional<Card> findWithVersionCheckById(@Param("id") Long id);
+
+    /**
+     * Bulk update, so the card is not loaded just to be hidden.
+     */
+    @Modifying
+    @Query("UPDATE Card c SET c.deletedAt = :now, c.updatedAt = :now, c.version = c.version + 1 WHERE c.id = :id AND c.deletedAt IS NULL")
+    int softDeleteById(@Param("id") Long id, @Param("now") OffsetDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Card c SET c.status = :status, c.updatedAt = :now, c.version = c.version + 1 WHERE c.id IN :ids AND c.status <> :status")
+    int updateStatusByIds(@Param("ids") List<Long> ids, @Param("status") Card.Status status, @Param("now") OffsetDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Card c SET c.dailyLimit = :dailyLimit, c.monthlyLimit = :monthlyLimit, c.updatedAt = :now, c.version = c.version + 1 WHERE c.id IN :ids")
+    int updateLimitsByIds(@Param("ids") List<Long> ids, @Param("dailyLimit") Double dailyLimit, @Param("monthlyLimit") Double monthlyLimit, @Param("now") OffsetDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Card c SET c.status = :status, c.updatedAt = :now, c.version = c.version + 1 WHERE c.owner.id = :ownerId AND c.status <> :status")
+    int updateStatusByOwnerId(@Param("ownerId") Long ownerId, @Param("status") Card.Status status, @Param("now") OffsetDateTime now);
+
     @Query("SELECT COALESCE(SUM(c.balance), 0.0) FROM Card c WHERE c.owner.id = :userId")
     Double getTotalBalanceByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.example.bankcards.dto.ListingVersion(COUNT(c), MAX(c.updatedAt)) FROM Card c")
+    ListingVersion getListingVersion();
+
+    @Query("SELECT new com.example.bankcards.dto.ListingVersion(COUNT(c), MAX(c.updatedAt)) FROM Card c WHERE c.owner.id = :ownerId")
+    ListingVersion getListingVersionByOwnerId(@Param("ownerId") Long ownerId);
 }
\ No newline at end of file
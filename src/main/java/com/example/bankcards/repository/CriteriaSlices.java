@@ -0,0 +1,67 @@
+package com.example.bankcards.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Pages a criteria query the way the derived {@code findSliceBy}/{@code findAll} methods do:
+ * one extra row to detect the next slice, or a count query when totals are asked for.
+ */
+final class CriteriaSlices {
+
+    private CriteriaSlices() {
+    }
+
+    static <T> Slice<T> fetch(EntityManager entityManager, Class<T> type, Pageable pageable, boolean withTotal,
+                              BiFunction<CriteriaBuilder, Root<T>, List<Predicate>> where, Consumer<Root<T>> fetches) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        fetches.accept(root);
+        query.select(root)
+                .where(where.apply(cb, root).toArray(Predicate[]::new))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        int size = pageable.getPageSize();
+        List<T> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(withTotal ? size : size + 1)
+                .getResultList();
+        if (!withTotal) {
+            boolean hasNext = content.size() > size;
+            return new SliceImpl<>(hasNext ? content.subList(0, size) : content, pageable, hasNext);
+        }
+
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<T> countRoot = count.from(type);
+        count.select(cb.count(countRoot)).where(where.apply(cb, countRoot).toArray(Predicate[]::new));
+        return PageableExecutionUtils.getPage(content, pageable, () -> entityManager.createQuery(count).getSingleResult());
+    }
+
+    /**
+     * Pattern for a case-insensitive prefix match with LIKE wildcards in the input taken literally.
+     */
+    static String prefixPattern(String prefix) {
+        return escape(prefix) + "%";
+    }
+
+    static String containsPattern(String value) {
+        return "%" + escape(value) + "%";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.UserFilter;
+import com.example.bankcards.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface UserQueryRepository {
+    /**
+     * Users matching the filter; a {@link org.springframework.data.domain.Page} when {@code withTotal}.
+     */
+    Slice<User> search(UserFilter filter, Pageable pageable, boolean withTotal);
+}
@@ -0,0 +1,67 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.UserFilter;
+import com.example.bankcards.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserQueryRepositoryImpl implements UserQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<User> search(UserFilter filter, Pageable pageable, boolean withTotal) {
+        return CriteriaSlices.fetch(entityManager, User.class, pageable, withTotal,
+                (cb, user) -> predicates(cb, user, filter),
+                user -> {
+                });
+    }
+
+    /**
+     * Text criteria compile to ILIKE so the trigram indexes on username, email and names apply,
+     * also for bound parameters under a generic plan.
+     */
+    private List<Predicate> predicates(CriteriaBuilder criteriaBuilder, Root<User> user, UserFilter filter) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) criteriaBuilder;
+        List<Predicate> predicates = new ArrayList<>();
+        if (StringUtils.hasText(filter.usernamePrefix())) {
+            predicates.add(cb.ilike(user.<String>get("username"), CriteriaSlices.prefixPattern(filter.usernamePrefix().trim()), '\\'));
+        }
+        if (StringUtils.hasText(filter.emailPrefix())) {
+            predicates.add(cb.ilike(user.<String>get("email"), CriteriaSlices.prefixPattern(filter.emailPrefix().trim()), '\\'));
+        }
+        if (StringUtils.hasText(filter.name())) {
+            String pattern = CriteriaSlices.containsPattern(filter.name().trim());
+            predicates.add(cb.or(
+                    cb.ilike(user.<String>get("firstName"), pattern, '\\'),
+                    cb.ilike(user.<String>get("lastName"), pattern, '\\')));
+        }
+        if (filter.role() != null) {
+            predicates.add(cb.equal(user.get("role"), filter.role()));
+        }
+        if (filter.active() != null) {
+            predicates.add(cb.equal(user.get("isActive"), filter.active()));
+        }
+        if (filter.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(user.<OffsetDateTime>get("createdAt"), filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            predicates.add(cb.lessThan(user.<OffsetDateTime>get("createdAt"), filter.createdTo()));
+        }
+        return predicates;
+    }
+}
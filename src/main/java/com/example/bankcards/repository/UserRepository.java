@@ -1,8 +1,10 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.ListingVersion;
 import com.example.bankcards.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -10,6 +12,11 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository, UserQueryRepository {
     Optional<User> findByUsername(String username);
+
+    Slice<User> findSliceBy(Pageable pageable);
+
+    @Query("SELECT new com.example.bankcards.dto.ListingVersion(COUNT(u), MAX(u.updatedAt)) FROM User u")
+    ListingVersion getListingVersion();
 }
\ No newline at end of file
@@ -1,11 +1,16 @@
 package com.example.bankcards.security.JWT;
 
 import com.example.bankcards.entity.User;
+import com.example.bankcards.monitoring.AccessLogFilter;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.revocation.TokenRevocationRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,12 +26,15 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
     private final UserRepository userRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
-    public JwtAuthorizationFilter(AuthenticationManager authenticationManager, JwtUtil jwtUtil, UserDetailsService userDetailsService, UserRepository userRepository) {
+    public JwtAuthorizationFilter(AuthenticationManager authenticationManager, JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                                  UserRepository userRepository, TokenRevocationRegistry tokenRevocationRegistry) {
         super(authenticationManager);
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
         this.userRepository = userRepository;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     @Override
@@ -38,10 +46,21 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
         }
 
         UsernamePasswordAuthenticationToken authentication = getAuthentication(request);
-        if (authentication != null) {
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (authentication == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        String userId = String.valueOf(((User) authentication.getPrincipal()).getId());
+        request.setAttribute(AccessLogFilter.USER_ID_KEY, userId);
+        MDC.put(AccessLogFilter.USER_ID_KEY, userId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Pooled request threads must not carry the id into the next request
+            MDC.remove(AccessLogFilter.USER_ID_KEY);
         }
-        chain.doFilter(request, response);
     }
 
     private UsernamePasswordAuthenticationToken getAuthentication(HttpServletRequest request) {
@@ -50,18 +69,24 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
             return null;
         }
 
-        String username = jwtUtil.extractUsernameFromToken(token.replace("Bearer ", ""));
+        Claims claims;
+        try {
+            claims = jwtUtil.parseAccessToken(token.replace("Bearer ", ""));
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        String username = claims.getSubject();
         if (Objects.isNull(username)) {
             return null;
         }
 
         UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        if (jwtUtil.validateToken(token.replace("Bearer ", ""), userDetails)) {
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-
-            return new UsernamePasswordAuthenticationToken(user, null, userDetails.getAuthorities());
+        User user = userRepository.findCachedByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        if (!user.getIsActive() || tokenRevocationRegistry.isRevoked(user.getId(), claims.getIssuedAt())) {
+            return null;
         }
-        return null;
+
+        return new UsernamePasswordAuthenticationToken(user, null, userDetails.getAuthorities());
     }
-}
\ No newline at end of file
+}
@@ -2,7 +2,11 @@ package com.example.bankcards.security.JWT;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -11,16 +15,24 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
+    public static final String TYPE_CLAIM = "typ";
+    public static final String FAMILY_CLAIM = "fam";
+    private static final String ACCESS_TYPE = "access";
+    private static final String REFRESH_TYPE = "refresh";
+    private static final Timer validationTimer = Metrics.timer("bankcards.jwt.validation");
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.token.lifespan}")
     private long tokenLifeSpan;
 
+    @Getter
     @Value("${jwt.refresh.token.lifespan}")
     private long refreshTokenLifeSpan;
 
@@ -29,17 +41,25 @@ public class JwtUtil {
     }
 
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails.getUsername());
+    }
+
+    public String generateToken(String username) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername(), tokenLifeSpan);
+        claims.put(TYPE_CLAIM, ACCESS_TYPE);
+        return createToken(claims, username, null, tokenLifeSpan);
     }
 
-    public String generateRefreshToken(UserDetails userDetails) {
+    public String generateRefreshToken(String username, UUID tokenId, UUID familyId) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername(), refreshTokenLifeSpan);
+        claims.put(TYPE_CLAIM, REFRESH_TYPE);
+        claims.put(FAMILY_CLAIM, familyId.toString());
+        return createToken(claims, username, tokenId.toString(), refreshTokenLifeSpan);
     }
 
-    private String createToken(Map<String, Object> claims, String username, long lifespan) {
+    private String createToken(Map<String, Object> claims, String username, String tokenId, long lifespan) {
         return Jwts.builder().addClaims(claims)
+                .setId(tokenId)
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + lifespan))
@@ -60,22 +80,27 @@ public class JwtUtil {
         return extractClaim(token, Claims::getSubject);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean validateToken(String token, UserDetails userDetails) {
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername())
+                && !REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class))
+                && !claims.getExpiration().before(new Date());
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsernameFromToken(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    public Claims parseAccessToken(String token) {
+        final Claims claims = validationTimer.record(() -> extractAllClaims(token));
+        if (REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class))) {
+            throw new MalformedJwtException("Not an access token");
+        }
+        return claims;
     }
 
-    public boolean validateRefreshToken(String token, UserDetails userDetails) {
-        return !isTokenExpired(token);
+    public Claims parseRefreshToken(String token) {
+        final Claims claims = extractAllClaims(token);
+        if (!REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class)) || claims.getId() == null || claims.get(FAMILY_CLAIM) == null) {
+            throw new MalformedJwtException("Not a refresh token");
+        }
+        return claims;
     }
 
 }
-
@@ -3,7 +3,13 @@ package com.example.bankcards.security;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.JWT.JwtAuthorizationFilter;
 import com.example.bankcards.security.JWT.JwtUtil;
+import com.example.bankcards.security.ratelimit.RateLimitFilter;
+import com.example.bankcards.security.ratelimit.RateLimitProperties;
+import com.example.bankcards.security.revocation.TokenRevocationRegistry;
 import com.example.bankcards.util.CustomArgon2PasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -23,16 +29,25 @@ import java.util.List;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
     private final UserRepository userRepository;
+    private final RateLimitProperties rateLimitProperties;
+    private final ObjectMapper objectMapper;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
-    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService, UserRepository userRepository) {
+    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService, UserRepository userRepository,
+                          RateLimitProperties rateLimitProperties, ObjectMapper objectMapper,
+                          TokenRevocationRegistry tokenRevocationRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
         this.userRepository = userRepository;
+        this.rateLimitProperties = rateLimitProperties;
+        this.objectMapper = objectMapper;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     @Bean
@@ -56,11 +71,15 @@ public class SecurityConfig {
                 .csrf(httpSecurityCsrfConfigurer -> httpSecurityCsrfConfigurer.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(requests ->
-                        requests.requestMatchers("/swagger-ui/**",
+                        requests.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                                .requestMatchers("/swagger-ui/**",
                                         "/v3/api-docs/**",
                                         "/swagger-resources/**",
                                         "/webjars/**",
-                                        "/api/auth/login/**").permitAll()
+                                        "/api/auth/login/**",
+                                        "/api/auth/refresh",
+                                        "/actuator/health/**",
+                                        "/actuator/prometheus").permitAll()
                                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                                 .requestMatchers("/api/users/**").hasRole("USER")
                                 .anyRequest()
@@ -69,7 +88,10 @@ public class SecurityConfig {
                 .headers(headers -> headers
                         .frameOptions(frameOptions -> frameOptions.sameOrigin())
                 )
-                .addFilter(new JwtAuthorizationFilter(authenticationManager(httpSecurity.getSharedObject(AuthenticationConfiguration.class)), jwtUtil, userDetailsService, userRepository));
+                .addFilter(new JwtAuthorizationFilter(authenticationManager(httpSecurity.getSharedObject(AuthenticationConfiguration.class)), jwtUtil, userDetailsService, userRepository, tokenRevocationRegistry));
+        if (rateLimitProperties.enabled()) {
+            httpSecurity.addFilterAfter(new RateLimitFilter(rateLimitProperties, objectMapper), JwtAuthorizationFilter.class);
+        }
         return httpSecurity.build();
     }
 
@@ -15,7 +15,7 @@ public class UserDetailsServiceConfig {
 
     @Bean
     public UserDetailsService userDetailsService(UserRepository userRepository) {
-        return username -> userRepository.findByUsername(username)
+        return username -> userRepository.findCachedByUsername(username)
                 .map(user -> {
                     GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + user.getRole().name());
 
@@ -0,0 +1,78 @@
+package com.example.bankcards.security.ratelimit;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final Map<String, RateLimiter> limiters = new HashMap<>();
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        long idleNanos = properties.idleTimeout().toNanos();
+        properties.groups().forEach((group, quota) -> limiters.put(group, new RateLimiter(quota, idleNanos)));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        String path = request.getRequestURI();
+        RateLimiter limiter = limiters.get(group(path));
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long wait = limiter.tryAcquire(key(path, request));
+        if (wait > 0) {
+            ErrorCode.TOO_MANY_REQUESTS.record();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait) + 1)));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ErrorCode.TOO_MANY_REQUESTS.getResponse());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String group(String path) {
+        if (path.startsWith("/api/auth/")) {
+            return "login";
+        }
+        if (path.equals("/api/users/transfer")) {
+            return "transfer";
+        }
+        if (path.startsWith("/api/admin/")) {
+            return "admin";
+        }
+        return "default";
+    }
+
+    private String key(String path, HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!path.startsWith("/api/auth/") && authentication != null && authentication.getPrincipal() instanceof User user) {
+            return "user:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
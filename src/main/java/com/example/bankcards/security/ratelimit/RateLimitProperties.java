@@ -0,0 +1,13 @@
+package com.example.bankcards.security.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties("app.rate-limit")
+public record RateLimitProperties(boolean enabled, Duration idleTimeout, Map<String, Quota> groups) {
+
+    public record Quota(long capacity, Duration refillPeriod) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.bankcards.security.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RateLimiter {
+
+    private final RateLimitProperties.Quota quota;
+    private final long idleNanos;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+
+    public RateLimiter(RateLimitProperties.Quota quota, long idleNanos) {
+        this.quota = quota;
+        this.idleNanos = idleNanos;
+        this.nextSweep = new AtomicLong(System.nanoTime() + idleNanos);
+    }
+
+    /**
+     * @return 0 if the request is allowed, otherwise nanoseconds until it would be
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(quota.capacity(), quota.refillPeriod().toNanos(), now));
+        }
+        long wait = bucket.tryConsume(now);
+        evictIdle(now);
+        return wait;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void evictIdle(long now) {
+        long sweepAt = nextSweep.get();
+        if (now - sweepAt < 0 || !nextSweep.compareAndSet(sweepAt, now + idleNanos)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.bankcards.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket in its GCRA form: the whole state is a single "theoretical arrival time",
+ * so consuming a token is one CAS with no allocation and no lock.
+ */
+public final class TokenBucket {
+
+    private final long emissionInterval;
+    private final long burstWindow;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, long refillPeriodNanos, long now) {
+        this.emissionInterval = refillPeriodNanos;
+        this.burstWindow = refillPeriodNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise nanoseconds until the next token is available
+     */
+    public long tryConsume(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionInterval;
+            long overflow = next - now - burstWindow;
+            if (overflow > 0) {
+                return overflow;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public boolean isIdle(long now, long idleNanos) {
+        return now - theoreticalArrival.get() > idleNanos;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.bankcards.security.revocation;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.event.TokenRevocationEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+
+/**
+ * Keeps {@link TokenRevocationRegistry} in sync across nodes. Revocations are broadcast with
+ * NOTIFY after commit and received on a dedicated connection outside the pool; every
+ * (re)connect and every catch-up interval re-reads recent rows so missed notifications
+ * are recovered.
+ */
+@Component
+@ConditionalOnProperty(name = "app.token-revocation.listen.enabled", havingValue = "true")
+@Slf4j
+public class PostgresRevocationListener implements SmartLifecycle {
+
+    private static final String CHANNEL = "token_revocations";
+    private static final long CLOCK_SKEW_MILLIS = 5_000;
+
+    private final TokenRevocationRegistry registry;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSourceProperties dataSourceProperties;
+    private final Duration catchUpInterval;
+    private final long tokenLifespan;
+
+    private volatile boolean running;
+    private Thread thread;
+    private long lastSeen;
+
+    public PostgresRevocationListener(TokenRevocationRegistry registry,
+                                      JdbcTemplate jdbcTemplate,
+                                      EntityManagerFactory entityManagerFactory,
+                                      DataSourceProperties dataSourceProperties,
+                                      @Value("${app.token-revocation.listen.catch-up-interval}") Duration catchUpInterval,
+                                      @Value("${jwt.token.lifespan}") long tokenLifespan) {
+        this.registry = registry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSourceProperties = dataSourceProperties;
+        this.catchUpInterval = catchUpInterval;
+        this.tokenLifespan = tokenLifespan;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTokenRevocation(TokenRevocationEvent event) {
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> {
+            }, CHANNEL, event.userId() + ":" + event.notBefore());
+        } catch (DataAccessException e) {
+            log.warn("Failed to broadcast token revocation for user {}: {}", event.userId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        lastSeen = System.currentTimeMillis() - tokenLifespan;
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("token-revocation-listener").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                catchUp();
+                long nextCatchUp = System.currentTimeMillis() + catchUpInterval.toMillis();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                    if (System.currentTimeMillis() >= nextCatchUp) {
+                        catchUp();
+                        nextCatchUp = System.currentTimeMillis() + catchUpInterval.toMillis();
+                    }
+                }
+            } catch (SQLException | DataAccessException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Token revocation listener disconnected, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void catchUp() {
+        jdbcTemplate.query("SELECT user_id, not_before FROM token_revocations WHERE not_before > ?",
+                rs -> {
+                    apply(rs.getLong("user_id"), rs.getTimestamp("not_before").getTime());
+                },
+                new Timestamp(lastSeen - CLOCK_SKEW_MILLIS));
+        registry.evictExpired(System.currentTimeMillis());
+    }
+
+    private void handle(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            log.warn("Malformed token revocation notification: {}", payload);
+            return;
+        }
+        apply(Long.parseLong(payload.substring(0, separator)), Long.parseLong(payload.substring(separator + 1)));
+    }
+
+    private void apply(long userId, long notBefore) {
+        registry.apply(userId, notBefore);
+        entityManagerFactory.getCache().evict(User.class, userId);
+        lastSeen = Math.max(lastSeen, notBefore);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.bankcards.security.revocation;
+
+import com.example.bankcards.event.TokenRevocationEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user "not before" instants, in epoch seconds to match the JWT iat claim. A token issued
+ * in the same second as its revocation is still accepted.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private final Map<Long, Long> notBefore = new ConcurrentHashMap<>();
+    private final long tokenLifespanSeconds;
+
+    public TokenRevocationRegistry(@Value("${jwt.token.lifespan}") long tokenLifespan) {
+        this.tokenLifespanSeconds = TimeUnit.MILLISECONDS.toSeconds(tokenLifespan);
+    }
+
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        Long revokedBefore = notBefore.get(userId);
+        if (revokedBefore == null) {
+            return false;
+        }
+        return issuedAt == null || TimeUnit.MILLISECONDS.toSeconds(issuedAt.getTime()) < revokedBefore;
+    }
+
+    public void apply(Long userId, long notBeforeMillis) {
+        notBefore.merge(userId, TimeUnit.MILLISECONDS.toSeconds(notBeforeMillis), Math::max);
+    }
+
+    public void evictExpired(long nowMillis) {
+        long nowSeconds = TimeUnit.MILLISECONDS.toSeconds(nowMillis);
+        notBefore.values().removeIf(revokedBefore -> revokedBefore + tokenLifespanSeconds < nowSeconds);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTokenRevocation(TokenRevocationEvent event) {
+        apply(event.userId(), event.notBefore());
+    }
+}
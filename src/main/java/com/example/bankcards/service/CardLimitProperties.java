@@ -0,0 +1,13 @@
+package com.example.bankcards.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.ZoneId;
+
+/**
+ * Limits given to new cards (none when unset) and the zone whose midnight starts a new day.
+ */
+@ConfigurationProperties("app.cards.limits")
+public record CardLimitProperties(@DefaultValue("Europe/Moscow") ZoneId zone, Double defaultDaily, Double defaultMonthly) {
+}
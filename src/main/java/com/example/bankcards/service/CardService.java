@@ -1,19 +1,24 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.*;
+import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public interface CardService {
     CardResponseDto createCard(Long userId);
     CardResponseDto blockCard(Long cardId);
     CardResponseDto activateCard(Long cardId);
     void deleteCard(Long cardId);
-    Page<CardResponseDto> getAllCards(int page, int size, String sortBy, String sortDir);
-    Page<CardProcessDto> getAllCardRequests(int page, int size, String sortBy, String sortDir);
+    BulkUpdateResult updateCardStatuses(BulkCardStatusRequest request, Card.Status status);
+    BulkUpdateResult updateCardLimits(BulkCardLimitRequest request);
+    Slice<CardResponseDto> getAllCards(int page, int size, String sortBy, String sortDir, boolean withTotal, CardFilter filter);
+    ListingVersion getCardsVersion();
+    Slice<CardProcessDto> getAllCardRequests(int page, int size, String sortBy, String sortDir, boolean withTotal);
     CardProcessDto approveRequest(Long requestId);
     CardProcessDto declineRequest(Long requestId);
-    Page<CardResponseDto> getAllCardsByUser(int page, int size, String sortBy, String sortDir, User user);
+    Slice<CardResponseDto> getAllCardsByUser(int page, int size, String sortBy, String sortDir, boolean withTotal, User user);
+    ListingVersion getCardsVersionByUser(User user);
     CardProcessDto sendRequest(Long cardId, User user);
     TransferDto sendTransfer(TransferRequestDto transferRequestDto, User user);
 }
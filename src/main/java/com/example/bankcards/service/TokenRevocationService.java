@@ -0,0 +1,5 @@
+package com.example.bankcards.service;
+
+public interface TokenRevocationService {
+    void revokeTokens(Long userId);
+}
@@ -1,10 +1,12 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.aspect.RetryOnOptimisticLock;
 import com.example.bankcards.dto.*;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardBlockRequest;
 import com.example.bankcards.entity.Transfer;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardRequestEvent;
 import com.example.bankcards.exception.card.*;
 import com.example.bankcards.exception.request.RequestAlreadyApprovedException;
 import com.example.bankcards.exception.request.RequestAlreadyDeniedException;
@@ -15,30 +17,45 @@ import com.example.bankcards.repository.CardBlockRequestRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransferRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardLimitProperties;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.util.CardGenerator;
 import com.example.bankcards.util.PageUtil;
-import jakarta.transaction.Transactional;
+import com.example.bankcards.velocity.TransferVelocityGuard;
+import io.micrometer.core.instrument.Metrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.ToIntFunction;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@EnableConfigurationProperties(CardLimitProperties.class)
 public class CardServiceImpl implements CardService {
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
     private final CardBlockRequestRepository cardBlockRequestRepository;
     private final TransferRepository transferRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransferVelocityGuard transferVelocityGuard;
+    private final CardLimitProperties cardLimitProperties;
 
     private final List<String> allowedSortFields = Arrays.asList("id", "balance", "createdAt", "expirationDate", "status");
     private final List<String> allowedSortFieldsProcess = Arrays.asList("id", "status");
@@ -52,11 +69,14 @@ public class CardServiceImpl implements CardService {
         card.setExpirationDate(OffsetDateTime.now().plusYears(5));
         card.setBalance(10000.0);
         card.setStatus(Card.Status.ACTIVE);
+        card.setDailyLimit(cardLimitProperties.defaultDaily());
+        card.setMonthlyLimit(cardLimitProperties.defaultMonthly());
         card.onCreate();
         return CardResponseDto.fromEntity(cardRepository.save(card));
     }
 
     @Override
+    @RetryOnOptimisticLock
     public CardResponseDto blockCard(Long cardId) {
         Card card = cardRepository.findById(cardId).orElseThrow(() -> new CardNotFoundException("Card not found"));
         if(card.getStatus().equals(Card.Status.BLOCKED)) {
@@ -69,6 +89,7 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
+    @RetryOnOptimisticLock
     public CardResponseDto activateCard(Long cardId) {
         Card card = cardRepository.findById(cardId).orElseThrow(() -> new CardNotFoundException("Card not found"));
         if(card.getStatus().equals(Card.Status.ACTIVE)) {
@@ -82,26 +103,104 @@ public class CardServiceImpl implements CardService {
 
     @Override
     public void deleteCard(Long cardId) {
-        cardRepository.deleteById(cardId);
+        OffsetDateTime now = OffsetDateTime.now();
+        if (cardRepository.softDeleteById(cardId, now) == 0) {
+            throw new CardNotFoundException("Card not found");
+        }
+        int rejected = cardBlockRequestRepository.rejectPendingByCardId(cardId, now);
+        if (rejected > 0) {
+            log.info("Rejected {} pending block requests of deleted card {}", rejected, cardId);
+        }
+    }
+
+    /**
+     * Runs outside a surrounding transaction so every chunk commits on its own and row locks
+     * are held for one chunk only. Filtered updates walk the matching ids in keyset order.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkUpdateResult updateCardStatuses(BulkCardStatusRequest request, Card.Status status) {
+        long updated = updateInChunks(request.ids(), request.filter(),
+                (filter, afterId) -> cardRepository.findIdsForStatusChange(filter, status, afterId, BULK_CHUNK_SIZE),
+                chunk -> cardRepository.updateStatusByIds(chunk, status, OffsetDateTime.now()));
+        log.info("Bulk status change to {} updated {} cards", status, updated);
+        return new BulkUpdateResult(updated);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkUpdateResult updateCardLimits(BulkCardLimitRequest request) {
+        if ((request.dailyLimit() != null && request.dailyLimit() < 0) || (request.monthlyLimit() != null && request.monthlyLimit() < 0)) {
+            throw new IllegalArgumentException("Limits must not be negative");
+        }
+        long updated = updateInChunks(request.ids(), request.filter(),
+                (filter, afterId) -> cardRepository.findIdsAfter(filter, afterId, BULK_CHUNK_SIZE),
+                chunk -> cardRepository.updateLimitsByIds(chunk, request.dailyLimit(), request.monthlyLimit(), OffsetDateTime.now()));
+        log.info("Bulk limit change to daily {} / monthly {} updated {} cards", request.dailyLimit(), request.monthlyLimit(), updated);
+        return new BulkUpdateResult(updated);
+    }
+
+    private long updateInChunks(List<Long> ids, CardFilter filter,
+                                BiFunction<CardFilter, Long, List<Long>> nextChunk, ToIntFunction<List<Long>> update) {
+        boolean hasIds = ids != null && !ids.isEmpty();
+        boolean hasFilter = filter != null && !filter.isEmpty();
+        if (hasIds == hasFilter) {
+            throw new IllegalArgumentException("Exactly one of ids or filter must be given");
+        }
+
+        long updated = 0;
+        if (hasIds) {
+            List<Long> distinct = ids.stream().distinct().toList();
+            for (int from = 0; from < distinct.size(); from += BULK_CHUNK_SIZE) {
+                updated += update.applyAsInt(distinct.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinct.size())));
+            }
+        } else {
+            long afterId = 0;
+            List<Long> chunk;
+            do {
+                chunk = nextChunk.apply(filter, afterId);
+                if (!chunk.isEmpty()) {
+                    updated += update.applyAsInt(chunk);
+                    afterId = chunk.get(chunk.size() - 1);
+                }
+            } while (chunk.size() == BULK_CHUNK_SIZE);
+        }
+        return updated;
     }
 
     @Override
-    public Page<CardResponseDto> getAllCards(int page, int size, String sortBy, String sortDir) {
+    @Transactional(readOnly = true)
+    public Slice<CardResponseDto> getAllCards(int page, int size, String sortBy, String sortDir, boolean withTotal, CardFilter filter) {
         Pageable pageable = PageUtil.setPage(page, size, sortBy, sortDir, allowedSortFields);
 
-        return cardRepository.findAll(pageable).map(CardResponseDto::fromEntity);
+        Slice<Card> cards;
+        if (!filter.isEmpty()) {
+            cards = cardRepository.search(filter, pageable, withTotal);
+        } else {
+            cards = withTotal ? cardRepository.findAll(pageable) : cardRepository.findSliceBy(pageable);
+        }
+        return cards.map(CardResponseDto::fromEntity);
     }
 
     @Override
-    public Page<CardProcessDto> getAllCardRequests(int page, int size, String sortBy, String sortDir) {
+    @Transactional(readOnly = true)
+    public ListingVersion getCardsVersion() {
+        return cardRepository.getListingVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<CardProcessDto> getAllCardRequests(int page, int size, String sortBy, String sortDir, boolean withTotal) {
         Pageable pageable = PageUtil.setPage(page, size, sortBy, sortDir, allowedSortFieldsProcess);
 
-        return cardBlockRequestRepository.findAll(pageable).map(CardProcessDto::fromEntity);
+        Slice<CardBlockRequest> requests = withTotal ? cardBlockRequestRepository.findAll(pageable) : cardBlockRequestRepository.findSliceBy(pageable);
+        return requests.map(CardProcessDto::fromEntity);
     }
 
     @Override
+    @RetryOnOptimisticLock
     public CardProcessDto approveRequest(Long requestId) {
-        CardBlockRequest request = cardBlockRequestRepository.findById(requestId).orElseThrow(() -> new RequestNotFoundException("Card not found"));
+        CardBlockRequest request = cardBlockRequestRepository.findWithLiveCardById(requestId).orElseThrow(() -> new RequestNotFoundException("Card not found"));
         if(request.getStatus().equals(CardBlockRequest.Status.APPROVED)) {
             throw new RequestAlreadyApprovedException("Card already active");
         }
@@ -110,12 +209,13 @@ public class CardServiceImpl implements CardService {
         request.setProcessedBy(request.getRequestedBy());
         request.setProcessedAt(OffsetDateTime.now());
 
-        return CardProcessDto.fromEntity(cardBlockRequestRepository.save(request));
+        return publish(CardRequestEvent.Type.PROCESSED, cardBlockRequestRepository.save(request));
     }
 
     @Override
+    @RetryOnOptimisticLock
     public CardProcessDto declineRequest(Long requestId) {
-        CardBlockRequest request = cardBlockRequestRepository.findById(requestId).orElseThrow(() -> new RequestNotFoundException("Card not found"));
+        CardBlockRequest request = cardBlockRequestRepository.findWithLiveCardById(requestId).orElseThrow(() -> new RequestNotFoundException("Card not found"));
         if(request.getStatus().equals(CardBlockRequest.Status.REJECTED)) {
             throw new RequestAlreadyDeniedException("Card already declined");
         }
@@ -124,19 +224,28 @@ public class CardServiceImpl implements CardService {
         request.setProcessedBy(request.getRequestedBy());
         request.setProcessedAt(OffsetDateTime.now());
 
-        return CardProcessDto.fromEntity(cardBlockRequestRepository.save(request));
+        return publish(CardRequestEvent.Type.PROCESSED, cardBlockRequestRepository.save(request));
     }
 
     @Override
-    public Page<CardResponseDto> getAllCardsByUser(int page, int size, String sortBy, String sortDir, User user) {
+    @Transactional(readOnly = true)
+    public Slice<CardResponseDto> getAllCardsByUser(int page, int size, String sortBy, String sortDir, boolean withTotal, User user) {
         Pageable pageable = PageUtil.setPage(page, size, sortBy, sortDir, allowedSortFields);
 
-        return cardRepository.findAllByOwner(user, pageable).map(CardResponseDto::fromEntity);
+        Slice<Card> cards = withTotal ? cardRepository.findAllByOwner(user, pageable) : cardRepository.findSliceByOwner(user, pageable);
+        return cards.map(CardResponseDto::fromEntity);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ListingVersion getCardsVersionByUser(User user) {
+        return cardRepository.getListingVersionByOwnerId(user.getId());
     }
 
     @Override
+    @RetryOnOptimisticLock
     public CardProcessDto sendRequest(Long cardId, User user) {
-        Card card = cardRepository.findById(cardId).orElseThrow(() -> new CardNotFoundException("Card not found"));
+        Card card = cardRepository.findWithVersionCheckById(cardId).orElseThrow(() -> new CardNotFoundException("Card not found"));
 
         if(!Objects.equals(card.getOwner().getId(), user.getId())) {
             throw new NotUserCardException("Its not your card");
@@ -150,23 +259,38 @@ public class CardServiceImpl implements CardService {
         request.setCard(card);
         request.setStatus(CardBlockRequest.Status.PENDING);
 
-        return CardProcessDto.fromEntity(cardBlockRequestRepository.save(request));
+        return publish(CardRequestEvent.Type.CREATED, cardBlockRequestRepository.save(request));
     }
 
     @Override
+    @RetryOnOptimisticLock
     public TransferDto sendTransfer(TransferRequestDto transferRequestDto, User user) {
-        Card senderCard = cardRepository.findById(transferRequestDto.senderCardId()).orElseThrow(() -> new CardNotFoundException("Card not found"));
-        Card receiverCard = cardRepository.findById(transferRequestDto.receiverCardId()).orElseThrow(() -> new CardNotFoundException("Card not found"));
+        Card senderCard = cardRepository.findById(transferRequestDto.senderCardId()).orElseThrow(this::transferCardNotFound);
+        Card receiverCard = cardRepository.findById(transferRequestDto.receiverCardId()).orElseThrow(this::transferCardNotFound);
 
         if(!Objects.equals(senderCard.getOwner().getId(), user.getId()) || !Objects.equals(receiverCard.getOwner().getId(), user.getId())) {
+            countTransfer("not_user_card");
             throw new NotUserCardException("Its not your card");
         }
+        // Only the owner may count against a card's velocity, or anyone could exhaust or probe it
+        if (!transferVelocityGuard.tryAcquire(senderCard.getId(), transferRequestDto.amount())) {
+            countTransfer("velocity_limit");
+            throw new VelocityLimitExceededException("Too many transfers from this card, try again later");
+        }
         if(senderCard.getStatus().equals(Card.Status.BLOCKED) || receiverCard.getStatus().equals(Card.Status.BLOCKED)) {
+            countTransfer("card_blocked");
             throw new CardBlockedException("Card blocked");
         }
         if (senderCard.getBalance() < transferRequestDto.amount()) {
+            countTransfer("not_enough_balance");
             throw new NotEnoughBalanceException("Not enough balance");
         }
+        LocalDate today = LocalDate.now(cardLimitProperties.zone());
+        if (!senderCard.isWithinLimits(transferRequestDto.amount(), today)) {
+            countTransfer("spending_limit");
+            throw new SpendingLimitExceededException("Card spending limit exceeded");
+        }
+        senderCard.getSpending().record(transferRequestDto.amount(), today);
 
         Transfer transfer = new Transfer();
         transfer.setSourceCard(senderCard);
@@ -175,6 +299,23 @@ public class CardServiceImpl implements CardService {
         transfer.setCurrency("RUB");
         transfer.setDescription(transferRequestDto.description());
 
-        return TransferDto.fromEntity(transferRepository.save(transfer));
+        TransferDto result = TransferDto.fromEntity(transferRepository.save(transfer));
+        countTransfer("completed");
+        return result;
+    }
+
+    private CardNotFoundException transferCardNotFound() {
+        countTransfer("card_not_found");
+        return new CardNotFoundException("Card not found");
+    }
+
+    private void countTransfer(String outcome) {
+        Metrics.counter("bankcards.transfers", "outcome", outcome).increment();
+    }
+
+    private CardProcessDto publish(CardRequestEvent.Type type, CardBlockRequest request) {
+        CardProcessDto dto = CardProcessDto.fromEntity(request);
+        eventPublisher.publishEvent(new CardRequestEvent(type, dto));
+        return dto;
     }
 }
@@ -0,0 +1,30 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.TokenRevocation;
+import com.example.bankcards.event.TokenRevocationEvent;
+import com.example.bankcards.repository.TokenRevocationRepository;
+import com.example.bankcards.service.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void revokeTokens(Long userId) {
+        OffsetDateTime notBefore = OffsetDateTime.now();
+        tokenRevocationRepository.save(new TokenRevocation(userId, notBefore));
+        eventPublisher.publishEvent(new TokenRevocationEvent(userId, notBefore.toInstant().toEpochMilli()));
+        log.info("Tokens of user {} issued before {} revoked", userId, notBefore);
+    }
+}
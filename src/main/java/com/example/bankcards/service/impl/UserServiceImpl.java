@@ -1,43 +1,62 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.aspect.RetryOnOptimisticLock;
 import com.example.bankcards.dto.JWTResponse;
+import com.example.bankcards.dto.ListingVersion;
 import com.example.bankcards.dto.LoginRequest;
+import com.example.bankcards.dto.RefreshRequest;
 import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.dto.UserFilter;
 import com.example.bankcards.dto.UserWithBalanceDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.RefreshToken;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.auth.InvalidRefreshTokenException;
 import com.example.bankcards.exception.user.UserAlreadyActiveException;
 import com.example.bankcards.exception.user.UserAlreadyDeactivatedException;
 import com.example.bankcards.exception.user.UserAlreadyHasRoleException;
 import com.example.bankcards.exception.user.UserNotFoundException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RefreshTokenRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.JWT.JwtUtil;
+import com.example.bankcards.service.TokenRevocationService;
 import com.example.bankcards.service.UserService;
 import com.example.bankcards.util.PageUtil;
-import jakarta.transaction.Transactional;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class UserServiceImpl implements UserService {
+    private static final int MIN_NAME_SEARCH_LENGTH = 3;
+
     private final UserRepository userRepository;
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
     private final CardRepository cardRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
 
     private final List<String> allowedSortFields = Arrays.asList("id", "username", "role");
 
@@ -48,17 +67,67 @@ public class UserServiceImpl implements UserService {
         );
 
         UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.username());
+        User user = userRepository.findCachedByUsername(userDetails.getUsername()).orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        return new JWTResponse(jwtUtil.generateToken(userDetails), issueRefreshToken(user, UUID.randomUUID()));
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public JWTResponse refresh(RefreshRequest refreshRequest) {
+        Claims claims;
+        UUID tokenId;
+        UUID familyId;
+        try {
+            claims = jwtUtil.parseRefreshToken(refreshRequest.refreshToken());
+            tokenId = UUID.fromString(claims.getId());
+            familyId = UUID.fromString(claims.get(JwtUtil.FAMILY_CLAIM, String.class));
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+
+        if (refreshTokenRepository.markUsed(tokenId, OffsetDateTime.now()) == 0) {
+            refreshTokenRepository.revokeFamily(familyId);
+            log.warn("Refresh token reuse for {}, family {} revoked", claims.getSubject(), familyId);
+            throw new InvalidRefreshTokenException("Refresh token already used or revoked");
+        }
+
+        User user = userRepository.findCachedByUsername(claims.getSubject())
+                .filter(User::getIsActive)
+                .orElse(null);
+        if (user == null) {
+            refreshTokenRepository.revokeFamily(familyId);
+            throw new InvalidRefreshTokenException("User not found or deactivated");
+        }
 
-        return new JWTResponse(jwtUtil.generateToken(userDetails), jwtUtil.generateRefreshToken(userDetails));
+        return new JWTResponse(jwtUtil.generateToken(user.getUsername()), issueRefreshToken(user, familyId));
     }
 
     @Override
-    public Page<UserDto> getAllUsers(int page, int size, String sortBy, String sortDir) {
+    @Transactional(readOnly = true)
+    public Slice<UserDto> getAllUsers(int page, int size, String sortBy, String sortDir, boolean withTotal, UserFilter filter) {
         Pageable pageable = PageUtil.setPage(page, size, sortBy, sortDir, allowedSortFields);
-        return userRepository.findAll(pageable).map(UserDto::fromEntity);
+        if (StringUtils.hasText(filter.name()) && filter.name().trim().length() < MIN_NAME_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("Name search needs at least " + MIN_NAME_SEARCH_LENGTH + " characters");
+        }
+
+        Slice<User> users;
+        if (!filter.isEmpty()) {
+            users = userRepository.search(filter, pageable, withTotal);
+        } else {
+            users = withTotal ? userRepository.findAll(pageable) : userRepository.findSliceBy(pageable);
+        }
+        return users.map(UserDto::fromEntity);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ListingVersion getUsersVersion() {
+        return userRepository.getListingVersion();
+    }
+
+    @Override
+    @RetryOnOptimisticLock
     public UserDto deactivateUser(Long userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
         if(!user.getIsActive()){
@@ -66,11 +135,14 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setIsActive(false);
+        cardRepository.updateStatusByOwnerId(userId, Card.Status.BLOCKED, OffsetDateTime.now());
+        tokenRevocationService.revokeTokens(userId);
 
         return UserDto.fromEntity(userRepository.save(user));
     }
 
     @Override
+    @RetryOnOptimisticLock
     public UserDto activateUser(Long userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
         if(user.getIsActive()){
@@ -78,11 +150,14 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setIsActive(true);
+        // Nothing valid is left to revoke, but the notification makes every node evict the inactive copy
+        tokenRevocationService.revokeTokens(userId);
 
         return UserDto.fromEntity(userRepository.save(user));
     }
 
     @Override
+    @RetryOnOptimisticLock
     public UserDto addRoleToUser(Long userId, User.Role roleName) {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
         if(user.getRole().equals(roleName)){
@@ -90,11 +165,13 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setRole(roleName);
+        tokenRevocationService.revokeTokens(userId);
 
         return UserDto.fromEntity(userRepository.save(user));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserWithBalanceDto getUserWithBalance(Long userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found"));
 
@@ -102,4 +179,15 @@ public class UserServiceImpl implements UserService {
 
         return new UserWithBalanceDto(UserDto.fromEntity(user), balance);
     }
+
+    private String issueRefreshToken(User user, UUID familyId) {
+        RefreshToken refreshToken = refreshTokenRepository.save(RefreshToken.builder()
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(OffsetDateTime.now().plus(jwtUtil.getRefreshTokenLifeSpan(), ChronoUnit.MILLIS))
+                .revoked(false)
+                .build());
+
+        return jwtUtil.generateRefreshToken(user.getUsername(), refreshToken.getId(), familyId);
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.bankcards.util;
 
 import java.security.SecureRandom;
+import java.util.random.RandomGenerator;
 
 public final class CardGenerator {
 
@@ -13,15 +14,23 @@ public final class CardGenerator {
 
 
     public static String generateCardNumber() {
+        return generateCardNumber(random);
+    }
+
+    public static String generateCardNumber(RandomGenerator random) {
         long prefix = random.nextBoolean() ? VISA_PREFIX : MASTERCARD_PREFIX;
-        return generateCardNumberWithPrefix(prefix);
+        return generateCardNumberWithPrefix(prefix, random);
     }
 
     public static String generateCardNumberWithPrefix(long prefix) {
+        return generateCardNumberWithPrefix(prefix, random);
+    }
+
+    public static String generateCardNumberWithPrefix(long prefix, RandomGenerator random) {
         StringBuilder number = new StringBuilder();
         number.append(prefix);
 
-        for (int i = 0; i < CARD_NUMBER_LENGTH - 2; i++) {
+        while (number.length() < CARD_NUMBER_LENGTH - 1) {
             number.append(random.nextInt(10));
         }
 
@@ -31,9 +40,17 @@ public final class CardGenerator {
         return number.toString();
     }
 
+    public static boolean isValidLuhn(String number) {
+        if (number == null || number.length() < 2) {
+            return false;
+        }
+        int last = number.length() - 1;
+        return calculateLuhnChecksum(number.substring(0, last)) == Character.getNumericValue(number.charAt(last));
+    }
+
     private static int calculateLuhnChecksum(String partialNumber) {
         int sum = 0;
-        boolean alternate = false;
+        boolean alternate = true;
 
         for (int i = partialNumber.length() - 1; i >= 0; i--) {
             int digit = Character.getNumericValue(partialNumber.charAt(i));
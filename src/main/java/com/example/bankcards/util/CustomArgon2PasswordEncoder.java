@@ -1,9 +1,12 @@
 package com.example.bankcards.util;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 public class CustomArgon2PasswordEncoder implements PasswordEncoder {
+    private static final Timer verifyTimer = Metrics.timer("bankcards.password.verify");
     private Argon2PasswordEncoder passwordEncoder;
 
     public CustomArgon2PasswordEncoder() {
@@ -17,6 +20,6 @@ public class CustomArgon2PasswordEncoder implements PasswordEncoder {
 
     @Override
     public boolean matches(CharSequence password, String encodedPassword) {
-        return passwordEncoder.matches(password, encodedPassword);
+        return verifyTimer.record(() -> passwordEncoder.matches(password, encodedPassword));
     }
 }
\ No newline at end of file
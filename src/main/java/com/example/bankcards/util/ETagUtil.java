@@ -0,0 +1,20 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.dto.ListingVersion;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+public final class ETagUtil {
+
+    public static String listingETag(ListingVersion version, Object... requestParams) {
+        long lastUpdated = version.lastUpdatedAt() == null
+                ? 0
+                : ChronoUnit.MICROS.between(Instant.EPOCH, version.lastUpdatedAt().toInstant());
+
+        return "\"" + Long.toHexString(version.count())
+                + "-" + Long.toHexString(lastUpdated)
+                + "-" + Integer.toHexString(Arrays.hashCode(requestParams)) + "\"";
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.bankcards.util;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 import org.bouncycastle.util.encoders.Hex;
@@ -19,6 +21,13 @@ public class EncryptedStringConverter implements AttributeConverter<String, Stri
     private String keyHex;
 
     private static final SecureRandom secureRandom = new SecureRandom();
+    private static final Timer decryptTimer = Metrics.timer("bankcards.crypto.decrypt");
+
+    public static EncryptedStringConverter withKey(String keyHex) {
+        EncryptedStringConverter converter = new EncryptedStringConverter();
+        converter.keyHex = keyHex;
+        return converter;
+    }
 
     @Override
     public String convertToDatabaseColumn(String attribute) {
@@ -29,7 +38,7 @@ public class EncryptedStringConverter implements AttributeConverter<String, Stri
     @Override
     public String convertToEntityAttribute(String dbData) {
         if (dbData == null) return null;
-        return decrypt(dbData, Hex.decode(keyHex));
+        return decryptTimer.record(() -> decrypt(dbData, Hex.decode(keyHex)));
     }
 
     private String encrypt(String plainText, byte[] key) {
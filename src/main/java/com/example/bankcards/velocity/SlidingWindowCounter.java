@@ -0,0 +1,247 @@
+package com.example.bankcards.velocity;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-key transfer count and amount over a sliding window made of {@code buckets} fixed-width
+ * sub-windows. Keys are spread over lock stripes; each stripe is an open-addressing table over
+ * primitive arrays, so recording a transfer allocates nothing. Stale keys are dropped when a
+ * stripe is rehashed. Keys must be positive (card ids).
+ */
+public final class SlidingWindowCounter {
+
+    private static final long EMPTY = 0;
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final int MIN_CAPACITY = 16;
+
+    private final int buckets;
+    private final long bucketMillis;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public SlidingWindowCounter(Duration window, int buckets, int stripes) {
+        if (buckets < 1 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Window " + window + " cannot be split into " + buckets + " buckets");
+        }
+        this.buckets = buckets;
+        this.bucketMillis = window.toMillis() / buckets;
+
+        int stripeCount = 1;
+        while (stripeCount < stripes) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Adds one transfer of {@code amount} at {@code timeMillis} unless the window ending at that
+     * time would then hold more than {@code maxCount} transfers or more than {@code maxAmount}.
+     *
+     * @return whether the transfer was recorded
+     */
+    public boolean tryAdd(long key, double amount, long timeMillis, long maxCount, double maxAmount) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            return stripe.tryAdd(key, amount, timeMillis / bucketMillis, maxCount, maxAmount);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes back a transfer recorded by {@link #tryAdd} at the same {@code timeMillis}; a no-op
+     * once its bucket has slid out of the window.
+     */
+    public void subtract(long key, double amount, long timeMillis) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            stripe.subtract(key, amount, timeMillis / bucketMillis);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public long count(long key, long timeMillis) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(key);
+            return slot < 0 ? 0 : stripe.count(slot, timeMillis / bucketMillis);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public double amount(long key, long timeMillis) {
+        Stripe stripe = stripe(key);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(key);
+            return slot < 0 ? 0 : stripe.amount(slot, timeMillis / bucketMillis);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripe(long key) {
+        return stripes[(int) ((key * GOLDEN) >>> 48) & stripeMask];
+    }
+
+    private static int hash(long key) {
+        return (int) ((key * GOLDEN) >>> 20);
+    }
+
+    private static int freeSlot(long[] table, long key) {
+        int mask = table.length - 1;
+        int i = hash(key) & mask;
+        while (table[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] keys = new long[MIN_CAPACITY];
+        private long[] epochs = new long[MIN_CAPACITY * buckets];
+        private int[] counts = new int[MIN_CAPACITY * buckets];
+        private double[] amounts = new double[MIN_CAPACITY * buckets];
+        private int size;
+
+        boolean tryAdd(long key, double amount, long epoch, long maxCount, double maxAmount) {
+            int slot = find(key);
+            if (slot < 0) {
+                if (maxCount < 1 || amount > maxAmount) {
+                    return false;
+                }
+                slot = insert(key, epoch);
+            } else if (count(slot, epoch) + 1 > maxCount || amount(slot, epoch) + amount > maxAmount) {
+                return false;
+            }
+
+            int bucket = slot * buckets + (int) (epoch % buckets);
+            if (epochs[bucket] != epoch) {
+                if (epochs[bucket] > epoch) {
+                    // older than everything the window can still see
+                    return true;
+                }
+                epochs[bucket] = epoch;
+                counts[bucket] = 0;
+                amounts[bucket] = 0;
+            }
+            counts[bucket]++;
+            amounts[bucket] += amount;
+            return true;
+        }
+
+        void subtract(long key, double amount, long epoch) {
+            int slot = find(key);
+            if (slot < 0) {
+                return;
+            }
+            int bucket = slot * buckets + (int) (epoch % buckets);
+            if (epochs[bucket] == epoch && counts[bucket] > 0) {
+                counts[bucket]--;
+                amounts[bucket] -= amount;
+            }
+        }
+
+        long count(int slot, long epoch) {
+            long total = 0;
+            for (int b = slot * buckets, end = b + buckets; b < end; b++) {
+                if (inWindow(epochs[b], epoch)) {
+                    total += counts[b];
+                }
+            }
+            return total;
+        }
+
+        double amount(int slot, long epoch) {
+            double total = 0;
+            for (int b = slot * buckets, end = b + buckets; b < end; b++) {
+                if (inWindow(epochs[b], epoch)) {
+                    total += amounts[b];
+                }
+            }
+            return total;
+        }
+
+        int find(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return i;
+                }
+                if (keys[i] == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        private int insert(long key, long epoch) {
+            if ((size + 1) * 4L > keys.length * 3L) {
+                rehash(epoch);
+            }
+            int slot = freeSlot(keys, key);
+            keys[slot] = key;
+            size++;
+            return slot;
+        }
+
+        /**
+         * Copies only keys with a bucket still inside the window, into a table at most half full.
+         */
+        private void rehash(long epoch) {
+            int live = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY && isLive(slot, epoch)) {
+                    live++;
+                }
+            }
+            int capacity = MIN_CAPACITY;
+            while (capacity < (live + 1) * 2) {
+                capacity <<= 1;
+            }
+
+            long[] newKeys = new long[capacity];
+            long[] newEpochs = new long[capacity * buckets];
+            int[] newCounts = new int[capacity * buckets];
+            double[] newAmounts = new double[capacity * buckets];
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] == EMPTY || !isLive(slot, epoch)) {
+                    continue;
+                }
+                int target = freeSlot(newKeys, keys[slot]);
+                newKeys[target] = keys[slot];
+                System.arraycopy(epochs, slot * buckets, newEpochs, target * buckets, buckets);
+                System.arraycopy(counts, slot * buckets, newCounts, target * buckets, buckets);
+                System.arraycopy(amounts, slot * buckets, newAmounts, target * buckets, buckets);
+            }
+            keys = newKeys;
+            epochs = newEpochs;
+            counts = newCounts;
+            amounts = newAmounts;
+            size = live;
+        }
+
+        private boolean isLive(int slot, long epoch) {
+            for (int b = slot * buckets, end = b + buckets; b < end; b++) {
+                if (epochs[b] > epoch - buckets) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean inWindow(long bucketEpoch, long epoch) {
+            return bucketEpoch <= epoch && bucketEpoch > epoch - buckets;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.bankcards.velocity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Checks the configured velocity rules for a sender card in memory once the caller is known
+ * to own it, before balance and limits are checked. A transfer that is let through counts
+ * against every rule; if its transaction does not commit, the count is taken back. Counters
+ * are local to the instance and are rebuilt from the recent {@code transfers} rows on startup.
+ */
+@Component
+@EnableConfigurationProperties(VelocityProperties.class)
+@Slf4j
+public class TransferVelocityGuard implements InitializingBean {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final String[] names;
+    private final VelocityProperties.Rule[] rules;
+    private final SlidingWindowCounter[] counters;
+    private final Counter[] rejections;
+
+    public TransferVelocityGuard(JdbcTemplate jdbcTemplate, VelocityProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = properties.enabled() && !properties.rules().isEmpty();
+
+        int size = properties.rules().size();
+        this.names = new String[size];
+        this.rules = new VelocityProperties.Rule[size];
+        this.counters = new SlidingWindowCounter[size];
+        this.rejections = new Counter[size];
+        int i = 0;
+        for (Map.Entry<String, VelocityProperties.Rule> entry : properties.rules().entrySet()) {
+            VelocityProperties.Rule rule = entry.getValue();
+            names[i] = entry.getKey();
+            rules[i] = rule;
+            counters[i] = new SlidingWindowCounter(rule.window(), rule.buckets(), properties.stripes());
+            rejections[i] = Metrics.counter("bankcards.transfers.velocity.rejected", "rule", entry.getKey());
+            i++;
+        }
+    }
+
+    /**
+     * @return false if the transfer would break a rule; nothing is recorded then
+     */
+    public boolean tryAcquire(long cardId, double amount) {
+        if (!enabled) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < counters.length; i++) {
+            if (!counters[i].tryAdd(cardId, amount, now, maxCount(rules[i]), maxAmount(rules[i]))) {
+                release(cardId, amount, now, i);
+                rejections[i].increment();
+                log.warn("Transfer from card {} rejected by velocity rule {}", cardId, names[i]);
+                return false;
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(cardId, amount, now, counters.length);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        Duration longest = Duration.ZERO;
+        for (VelocityProperties.Rule rule : rules) {
+            longest = rule.window().compareTo(longest) > 0 ? rule.window() : longest;
+        }
+
+        long now = System.currentTimeMillis();
+        long[] rows = {0};
+        try {
+            // bounded on transfer_date so only the current partition is scanned
+            jdbcTemplate.query("SELECT source_card_id, transfer_date, amount FROM transfers WHERE transfer_date >= ? ORDER BY transfer_date",
+                    (RowCallbackHandler) rs -> {
+                        long cardId = rs.getLong(1);
+                        long time = rs.getTimestamp(2).getTime();
+                        double amount = rs.getDouble(3);
+                        for (int i = 0; i < counters.length; i++) {
+                            if (time > now - rules[i].window().toMillis()) {
+                                counters[i].tryAdd(cardId, amount, time, Long.MAX_VALUE, Double.MAX_VALUE);
+                            }
+                        }
+                        rows[0]++;
+                    },
+                    new Timestamp(now - longest.toMillis()));
+        } catch (DataAccessException e) {
+            log.warn("Could not rebuild velocity counters, starting empty", e);
+            return;
+        }
+        log.info("Rebuilt velocity counters from {} transfers of the last {}", rows[0], longest);
+    }
+
+    private void release(long cardId, double amount, long time, int recorded) {
+        for (int i = 0; i < recorded; i++) {
+            counters[i].subtract(cardId, amount, time);
+        }
+    }
+
+    private static long maxCount(VelocityProperties.Rule rule) {
+        return rule.maxCount() == null ? Long.MAX_VALUE : rule.maxCount();
+    }
+
+    private static double maxAmount(VelocityProperties.Rule rule) {
+        return rule.maxAmount() == null ? Double.MAX_VALUE : rule.maxAmount();
+    }
+}
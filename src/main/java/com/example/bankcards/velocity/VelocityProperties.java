@@ -0,0 +1,21 @@
+package com.example.bankcards.velocity;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Velocity rules per sender card. A rule without {@code maxCount} or {@code maxAmount} does
+ * not limit that dimension.
+ */
+@ConfigurationProperties("app.transfers.velocity")
+public record VelocityProperties(boolean enabled, int stripes, Map<String, Rule> rules) {
+
+    public VelocityProperties {
+        rules = rules == null ? Map.of() : rules;
+    }
+
+    public record Rule(Duration window, int buckets, Long maxCount, Double maxAmount) {
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.datagen.DataGenerationProperties;
+import com.example.bankcards.datagen.DataGenerator;
+import com.example.bankcards.util.EncryptedStringConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Mixed workload against the full application on an embedded Postgres (or an existing
+ * database via {@code -Dloadtest.jdbcUrl}). Run with
+ * {@code mvn test -Dtest=LoadTest -Dloadtest=true -Dloadtest.users=1000 -Dloadtest.duration=60}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jwt.secret=load-test-secret-load-test-secret-load-test-secret",
+        "app.encryption.key=" + LoadTest.ENCRYPTION_KEY,
+        "app.rate-limit.enabled=false",
+        "spring.liquibase.enabled=true",
+        "app.migration.verify-on-startup=false",
+        "app.transfers.velocity.enabled=false",
+        "spring.threads.virtual.enabled=true",
+        "management.server.port=0"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LoadTest {
+
+    static final String ENCRYPTION_KEY = "000102030405060708090a0b0c0d0e0f";
+    private static final String PASSWORD = "Elaq7er1glh2";
+    private static final String PASSWORD_HASH = "$argon2id$v=19$m=60000,t=10,p=1$5+8o7+EfRiVsoCgwZ+6nDw$3k3f1arGRnoab8W+vh1Xh0YSRXf0cpCO+tPnuYfiY/4";
+
+    private static final int users = Integer.getInteger("loadtest.users", 1000);
+    private static final int maxCardsPerUser = Integer.getInteger("loadtest.maxCardsPerUser", 5);
+    private static final long transfers = Long.getLong("loadtest.transfers", 20_000);
+    private static final long seed = Long.getLong("loadtest.seed", 42);
+    private static final int sessions = Integer.getInteger("loadtest.sessions", 50);
+    private static final int clients = Integer.getInteger("loadtest.clients", 200);
+    private static final Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 30));
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static EmbeddedPostgres postgres;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private HttpClient httpClient;
+    private String adminToken;
+    private final List<Session> userSessions = new ArrayList<>();
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        String url = System.getProperty("loadtest.jdbcUrl");
+        if (url == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            url = postgres.getJdbcUrl("postgres", "postgres");
+        }
+        String jdbcUrl = url;
+        registry.add("spring.datasource.url", () -> jdbcUrl);
+        registry.add("spring.datasource.username", () -> System.getProperty("loadtest.jdbcUser", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("loadtest.jdbcPassword", "postgres"));
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeAll
+    void seedData() throws Exception {
+        httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        DataGenerator.Summary summary = new DataGenerator(dataSource, EncryptedStringConverter.withKey(ENCRYPTION_KEY), PASSWORD_HASH,
+                new DataGenerationProperties(seed, users, maxCardsPerUser, transfers, 0.02, 90, "load-", 10_000, 4)).generate();
+        System.out.printf("Seeded %d users, %d cards, %d transfers in %d ms%n",
+                summary.users(), summary.cards(), summary.transfers(), summary.elapsedMillis());
+
+        adminToken = login("admin");
+        List<String> usernames = jdbcTemplate.queryForList(
+                "SELECT username FROM users WHERE username LIKE 'load-%' AND is_active ORDER BY id LIMIT ?", String.class, sessions);
+        for (String username : usernames) {
+            List<Long> cards = jdbcTemplate.queryForList(
+                    "SELECT c.id FROM cards c JOIN users u ON u.id = c.owner_id WHERE u.username = ? ORDER BY c.id", Long.class, username);
+            userSessions.add(new Session(username, login(username), cards));
+        }
+    }
+
+    @Test
+    @DisplayName("Смешанная нагрузка")
+    void mixedWorkload() throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        step(ThreadLocalRandom.current());
+                    }
+                    return null;
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%-28s %9s %9s %6s %6s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "4xx", "5xx", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        stats.forEach((name, s) -> System.out.printf("%-28s %9d %9.1f %6d %6d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                s.latency.getTotalCount(),
+                s.latency.getTotalCount() / seconds,
+                s.clientErrors.sum(),
+                s.serverErrors.sum(),
+                s.latency.getValueAtPercentile(50) / 1e6,
+                s.latency.getValueAtPercentile(90) / 1e6,
+                s.latency.getValueAtPercentile(99) / 1e6,
+                s.latency.getValueAtPercentile(99.9) / 1e6,
+                s.latency.getMaxValue() / 1e6));
+
+        assertThat(stats.values()).allSatisfy(s -> assertThat(s.serverErrors.sum()).isZero());
+    }
+
+    private void step(ThreadLocalRandom random) {
+        Session session = userSessions.get(random.nextInt(userSessions.size()));
+        int roll = random.nextInt(100);
+        if (roll < 35) {
+            call("GET /api/users/cards", get("/api/users/cards?page=" + random.nextInt(3) + "&size=10", session.token()));
+        } else if (roll < 55) {
+            call("GET /api/users/balance", get("/api/users/balance", session.token()));
+        } else if (roll < 80) {
+            List<Long> cards = session.cards();
+            call("POST /api/users/transfer", post("/api/users/transfer", session.token(), Map.of(
+                    "senderCardId", cards.get(random.nextInt(cards.size())),
+                    "receiverCardId", cards.get(random.nextInt(cards.size())),
+                    "amount", 0.01,
+                    "description", "load")));
+        } else if (roll < 85) {
+            List<Long> cards = session.cards();
+            call("POST /api/users/request/{id}", post("/api/users/request/" + cards.get(random.nextInt(cards.size())), session.token(), null));
+        } else if (roll < 97) {
+            call("GET /api/admin/cards", get("/api/admin/cards?page=" + random.nextInt(10) + "&size=20", adminToken));
+        } else {
+            call("POST /api/auth/login", post("/api/auth/login", null, Map.of("username", session.username(), "password", PASSWORD)));
+        }
+    }
+
+    private void call(String name, HttpRequest request) {
+        Stats endpoint = stats(name);
+        long begin = System.nanoTime();
+        int status;
+        try {
+            status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            status = 599;
+        }
+        endpoint.latency.recordValue(System.nanoTime() - begin);
+        if (status >= 500) {
+            endpoint.serverErrors.increment();
+        } else if (status >= 400) {
+            endpoint.clientErrors.increment();
+        }
+    }
+
+    private synchronized Stats stats(String name) {
+        return stats.computeIfAbsent(name, n -> new Stats());
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String token, Map<String, Object> body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        try {
+            return builder.POST(body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String login(String username) throws Exception {
+        HttpResponse<String> response = httpClient.send(
+                post("/api/auth/login", null, Map.of("username", username, "password", PASSWORD)),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("login of %s", username).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private record Session(String username, String token, List<Long> cards) {
+    }
+
+    private static final class Stats {
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.CardResponseDto;
+import com.example.bankcards.dto.PageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encode time and payload size of a card listing page per format, and of the lean
+ * {@link PageResponse} envelope against Spring Data's {@link PagedModel}.
+ * {@code mvn test -Dtest=PageSerializationBenchmark -Djmh=true}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private PagedModel<CardResponseDto> pagedModel;
+    private PageResponse<CardResponseDto> page;
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+
+    @Setup
+    public void setUp() throws Exception {
+        OffsetDateTime createdAt = OffsetDateTime.parse("2025-01-01T10:00:00Z");
+        List<CardResponseDto> cards = IntStream.range(0, pageSize)
+                .mapToObj(i -> new CardResponseDto((long) i, "**** **** **** " + (1000 + i), "Ivan Petrov",
+                        10_000.0 + i * 13.37, "ACTIVE", createdAt.plusMinutes(i).toString(), 100_000.0, 1_000_000.0))
+                .toList();
+        pagedModel = new PagedModel<>(new PageImpl<>(cards, PageRequest.of(3, pageSize), 10_000));
+        page = PageResponse.of(new SliceImpl<>(cards, PageRequest.of(3, pageSize), true));
+
+        json = Jackson2ObjectMapperBuilder.json().build();
+        cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        smile = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+
+        System.out.printf("%n%d cards per page: PagedModel json %d bytes, json %d bytes, cbor %d bytes, smile %d bytes%n", pageSize,
+                json.writeValueAsBytes(pagedModel).length, json.writeValueAsBytes(page).length,
+                cbor.writeValueAsBytes(page).length, smile.writeValueAsBytes(page).length);
+    }
+
+    @Benchmark
+    public byte[] pagedModelJson() throws Exception {
+        return json.writeValueAsBytes(pagedModel);
+    }
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        return json.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws Exception {
+        return cbor.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] smile() throws Exception {
+        return smile.writeValueAsBytes(page);
+    }
+
+    @Test
+    @DisplayName("JMH: размер и время кодирования страницы")
+    @EnabledIfSystemProperty(named = "jmh", matches = "true")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder().include(PageSerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.security.ratelimit.RateLimitProperties;
+import com.example.bankcards.security.ratelimit.RateLimiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code mvn test -Dtest=RateLimiterBenchmark -Djmh=true}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private RateLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        limiter = new RateLimiter(new RateLimitProperties.Quota(1_000_000, Duration.ofNanos(1)), Duration.ofMinutes(10).toNanos());
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        String key = "user:" + Thread.currentThread().threadId() % 64;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long sharedKeyContended() {
+        return limiter.tryAcquire("user:1");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long perClientKeys(Client client) {
+        return limiter.tryAcquire(client.key);
+    }
+
+    @Test
+    @DisplayName("JMH: накладные расходы лимитера")
+    @EnabledIfSystemProperty(named = "jmh", matches = "true")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder().include(RateLimiterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
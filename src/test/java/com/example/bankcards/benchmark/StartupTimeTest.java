@@ -0,0 +1,194 @@
+package com.example.bankcards.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Time from process start to the first successful {@code POST /api/auth/login} for the plain
+ * JVM jar, the AOT-processed jar, the jar with a CDS archive and the native executable.
+ * Variants whose artifacts were not built are skipped. Build with {@code mvn -Paot package -DskipTests}
+ * (and {@code mvn -Pnative native:compile -DskipTests} for the native one), then run
+ * {@code mvn test -Dtest=StartupTimeTest -Dstartup=true -Dstartup.runs=5}.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "startup", matches = "true")
+class StartupTimeTest {
+
+    private static final String LOGIN_BODY = "{\"username\":\"admin\",\"password\":\"Elaq7er1glh2\"}";
+    private static final String AOT_INITIALIZER = "BOOT-INF/classes/com/example/bankcards/BankCardManagementSystemApplication__ApplicationContextInitializer.class";
+    private static final Duration timeout = Duration.ofSeconds(120);
+    private static final int runs = Integer.getInteger("startup.runs", 5);
+
+    private final Path target = Path.of("target");
+    private final Path workDir = target.resolve("startup");
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private EmbeddedPostgres postgres;
+
+    @BeforeAll
+    void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        Files.createDirectories(workDir);
+    }
+
+    @AfterAll
+    void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Время до первого успешного входа")
+    void timeToFirstLogin() throws Exception {
+        Path jar = applicationJar();
+        run(target, List.of(java, "-jar", jar.toAbsolutePath().toString(), "--spring.profiles.active=migrate"), workDir.resolve("migrate.log"));
+
+        Map<String, Variant> variants = new LinkedHashMap<>();
+        variants.put("jvm", new Variant(target, List.of(java, "-jar", jar.toAbsolutePath().toString())));
+        if (hasAotClasses(jar)) {
+            variants.put("jvm+aot", new Variant(target, List.of(java, "-Dspring.aot.enabled=true", "-jar", jar.toAbsolutePath().toString())));
+        }
+        variants.put("jvm+cds", cdsVariant(jar));
+        Path executable = target.resolve("Bank");
+        if (Files.isExecutable(executable)) {
+            variants.put("native", new Variant(target, List.of(executable.toAbsolutePath().toString())));
+        }
+
+        System.out.printf("%-10s %10s %10s %10s%n", "variant", "min ms", "median ms", "max ms");
+        for (Map.Entry<String, Variant> variant : variants.entrySet()) {
+            List<Long> millis = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                millis.add(timeStartup(variant.getKey(), variant.getValue()));
+            }
+            millis.sort(null);
+            System.out.printf("%-10s %10d %10d %10d%n", variant.getKey(),
+                    millis.get(0), millis.get(millis.size() / 2), millis.get(millis.size() - 1));
+        }
+    }
+
+    private long timeStartup(String name, Variant variant) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(variant.command());
+        command.add("--server.port=" + port);
+        command.add("--management.server.port=0");
+
+        long start = System.nanoTime();
+        Process process = start(variant.directory(), command, workDir.resolve(name + ".log"));
+        try {
+            HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                    .build();
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                assertThat(process.isAlive()).as("%s exited, see %s.log", name, name).isTrue();
+                try {
+                    if (httpClient.send(login, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError(name + " did not accept a login within " + timeout);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Extracts the jar and records the classes loaded up to the context refresh into a CDS archive.
+     */
+    private Variant cdsVariant(Path jar) throws Exception {
+        Path directory = workDir.resolve("cds");
+        run(target, List.of(java, "-Djarmode=tools", "-jar", jar.toAbsolutePath().toString(),
+                "extract", "--destination", directory.toAbsolutePath().toString(), "--force"), workDir.resolve("cds-extract.log"));
+
+        List<String> training = new ArrayList<>(List.of(java, "-XX:ArchiveClassesAtExit=app.jsa", "-Dspring.context.exit=onRefresh"));
+        if (hasAotClasses(jar)) {
+            training.add("-Dspring.aot.enabled=true");
+        }
+        training.addAll(List.of("-jar", "app.jar"));
+        run(directory, training, workDir.resolve("cds-training.log"));
+
+        List<String> command = new ArrayList<>(List.of(java, "-XX:SharedArchiveFile=app.jsa"));
+        if (hasAotClasses(jar)) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-jar", "app.jar"));
+        return new Variant(directory, command);
+    }
+
+    private void run(Path directory, List<String> command, Path log) throws Exception {
+        Process process = start(directory, command, log);
+        assertThat(process.waitFor(timeout.toSeconds(), TimeUnit.SECONDS)).as("%s timed out", log).isTrue();
+        assertThat(process.exitValue()).as("%s failed, see %s", command, log).isZero();
+    }
+
+    private Process start(Path directory, List<String> command, Path log) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        Map<String, String> env = builder.environment();
+        env.put("SPRING_DATASOURCE_URL", postgres.getJdbcUrl("postgres", "postgres"));
+        env.put("SPRING_DATASOURCE_USERNAME", "postgres");
+        env.put("SPRING_DATASOURCE_PASSWORD", "postgres");
+        env.put("JWT_SECRET", "startup-test-secret-startup-test-secret-startup-test");
+        env.put("ENCRYPTION_SECRET", "000102030405060708090a0b0c0d0e0f");
+        return builder.start();
+    }
+
+    private Path applicationJar() throws IOException {
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("Build the jar first: mvn package -DskipTests"));
+        }
+    }
+
+    private boolean hasAotClasses(Path jar) throws IOException {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            return jarFile.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+
+    private int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variant(Path directory, List<String> command) {
+    }
+}
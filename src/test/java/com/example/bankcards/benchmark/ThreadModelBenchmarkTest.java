@@ -0,0 +1,126 @@
+package com.example.bankcards.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Load benchmark against a running instance. Start the application once with the default
+ * profile and once with {@code --spring.profiles.active=virtual}, then run
+ * {@code mvn test -Dtest=ThreadModelBenchmarkTest -Dbench.url=http://localhost:8080}
+ * against each and compare the reported throughput and p99.
+ */
+@EnabledIfSystemProperty(named = "bench.url", matches = ".+")
+class ThreadModelBenchmarkTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String baseUrl = System.getProperty("bench.url");
+    private static final int clients = Integer.getInteger("bench.clients", 200);
+    private static final int requestsPerClient = Integer.getInteger("bench.requests", 50);
+
+    private static HttpClient httpClient;
+    private static String token;
+
+    @BeforeAll
+    static void login() throws Exception {
+        httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", System.getProperty("bench.username", "user"),
+                "password", System.getProperty("bench.password", "Elaq7er1glh2")));
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        token = objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    @Test
+    @DisplayName("Нагрузка на список карт")
+    void listCards() throws Exception {
+        run("GET /api/users/cards", () -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/cards?page=0&size=10"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build());
+    }
+
+    @Test
+    @DisplayName("Нагрузка на переводы")
+    @EnabledIfSystemProperty(named = "bench.senderCardId", matches = "\\d+")
+    void transfer() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "senderCardId", Long.getLong("bench.senderCardId"),
+                "receiverCardId", Long.getLong("bench.receiverCardId"),
+                "amount", 0.01,
+                "description", "benchmark"));
+        run("POST /api/users/transfer", () -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/transfer"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private void run(String name, Supplier<HttpRequest> request) throws Exception {
+        long[] latencies = new long[clients * requestsPerClient];
+        AtomicInteger index = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request.get(), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[index.getAndIncrement()] = System.nanoTime() - begin;
+                    }
+                    return null;
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d requests, %d errors, %.1f req/s, p50 %.2f ms, p99 %.2f ms%n",
+                name,
+                latencies.length,
+                errors.get(),
+                latencies.length / (elapsed / 1e9),
+                percentile(latencies, 0.50) / 1e6,
+                percentile(latencies, 0.99) / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
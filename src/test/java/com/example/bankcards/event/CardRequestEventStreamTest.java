@@ -0,0 +1,171 @@
+package com.example.bankcards.event;
+
+import com.example.bankcards.dto.CardProcessDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CardRequestEventStreamTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    private final List<RecordingEmitter> created = new CopyOnWriteArrayList<>();
+
+    private CardRequestEventStream stream(int bufferSize, Executor senders) {
+        return new CardRequestEventStream(bufferSize, 60_000, Runnable::run, senders) {
+            @Override
+            SseEmitter createEmitter(long timeout) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                created.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private static void publish(CardRequestEventStream stream, int count) {
+        for (int i = 0; i < count; i++) {
+            stream.onCardRequestEvent(new CardRequestEvent(CardRequestEvent.Type.CREATED,
+                    new CardProcessDto((long) i, "user", "4111111111111111", "PENDING")));
+        }
+    }
+
+    @Test
+    @DisplayName("Повторная отправка событий после Last-Event-ID")
+    void subscribe_ShouldReplayEventsAfterLastEventId() {
+        CardRequestEventStream stream = stream(8, Runnable::run);
+        publish(stream, 5);
+
+        RecordingEmitter emitter = (RecordingEmitter) stream.subscribe("3");
+        publish(stream, 1);
+
+        assertThat(emitter.ids).containsExactly(4L, 5L, 6L);
+    }
+
+    @Test
+    @DisplayName("После заполнения кольцевого буфера отдаются только сохраненные события")
+    void subscribe_ShouldReplayRetainedWindow_AfterWraparound() {
+        CardRequestEventStream stream = stream(4, Runnable::run);
+        publish(stream, 10);
+
+        RecordingEmitter fromStart = (RecordingEmitter) stream.subscribe("2");
+        RecordingEmitter recent = (RecordingEmitter) stream.subscribe("8");
+
+        assertThat(fromStart.ids).containsExactly(7L, 8L, 9L, 10L);
+        assertThat(recent.ids).containsExactly(9L, 10L);
+    }
+
+    @Test
+    @DisplayName("Отрицательный и слишком большой Last-Event-ID ограничиваются окном буфера")
+    void subscribe_ShouldClampOutOfRangeIds() {
+        CardRequestEventStream stream = stream(8, Runnable::run);
+        publish(stream, 3);
+
+        RecordingEmitter negative = (RecordingEmitter) stream.subscribe("-5");
+        RecordingEmitter ahead = (RecordingEmitter) stream.subscribe("1000");
+
+        assertThat(negative.ids).containsExactly(1L, 2L, 3L);
+        assertThat(ahead.ids).containsExactly(1L, 2L, 3L);
+        assertThat(negative.completed).isFalse();
+    }
+
+    @Test
+    @DisplayName("Некорректный Last-Event-ID открывает поток без повторной отправки")
+    void subscribe_ShouldIgnoreMalformedLastEventId() {
+        CardRequestEventStream stream = stream(8, Runnable::run);
+        publish(stream, 3);
+
+        RecordingEmitter emitter = (RecordingEmitter) stream.subscribe("not-a-number");
+        publish(stream, 1);
+
+        assertThat(emitter.ids).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Пустые ячейки буфера пропускаются")
+    void subscribe_ShouldSkipEmptySlots_WhenBufferNotFull() {
+        CardRequestEventStream stream = stream(8, Runnable::run);
+
+        RecordingEmitter emitter = (RecordingEmitter) stream.subscribe("0");
+        publish(stream, 2);
+
+        assertThat(emitter.ids).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Медленный клиент не задерживает остальных и отключается")
+    void onCardRequestEvent_ShouldNotStallOthers_WhenOneClientIsSlow() throws InterruptedException {
+        ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            CardRequestEventStream stream = stream(2, senders);
+            CountDownLatch release = new CountDownLatch(1);
+            RecordingEmitter slow = (RecordingEmitter) stream.subscribe(null);
+            slow.blockOn = release;
+            RecordingEmitter fast = (RecordingEmitter) stream.subscribe(null);
+
+            for (int i = 1; i <= 10; i++) {
+                publish(stream, 1);
+                assertThat(fast.awaitIds(i)).isTrue();
+            }
+
+            assertThat(fast.ids).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+            release.countDown();
+            assertThat(slow.completion.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(slow.ids.size()).isLessThan(10);
+        } finally {
+            senders.shutdownNow();
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<Long> ids = new CopyOnWriteArrayList<>();
+        private final CountDownLatch completion = new CountDownLatch(1);
+        private volatile CountDownLatch blockOn;
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            CountDownLatch latch = blockOn;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            Matcher matcher = EVENT_ID.matcher(text);
+            if (matcher.find()) {
+                ids.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            completion.countDown();
+        }
+
+        private boolean awaitIds(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (ids.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return ids.size() >= count;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bankcards.exception;
+
+import com.example.bankcards.dto.ErrorResponse;
+import com.example.bankcards.exception.card.NotEnoughBalanceException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    @DisplayName("Бизнес-исключение не собирает стек вызовов")
+    void domainException_ShouldNotCaptureStackTrace() {
+        NotEnoughBalanceException e = new NotEnoughBalanceException("Not enough balance");
+
+        assertThat(e.getStackTrace()).isEmpty();
+        assertThat(e.getErrorCode()).isEqualTo(ErrorCode.NOT_ENOUGH_BALANCE);
+    }
+
+    @Test
+    @DisplayName("Ответ на бизнес-исключение берется из каталога")
+    void handleDomain_ShouldReturnCachedResponse() {
+        ResponseEntity<ErrorResponse> first = handler.handleDomain(new NotEnoughBalanceException("Not enough balance"));
+        ResponseEntity<ErrorResponse> second = handler.handleDomain(new NotEnoughBalanceException("Not enough balance"));
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(first.getBody()).isEqualTo(new ErrorResponse("NOT_ENOUGH_BALANCE", "Not enough balance"));
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Непредвиденная ошибка возвращает 500")
+    void handleUnexpected_ShouldReturnInternalError() {
+        ResponseEntity<ErrorResponse> response = handler.handleUnexpected(new IllegalStateException("boom"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getBody().code()).isEqualTo("INTERNAL_ERROR");
+    }
+
+    @Test
+    @DisplayName("Ошибка, записанная без ResponseEntity, тоже считается")
+    void record_ShouldIncrementErrorCounter() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            ErrorCode.TOO_MANY_REQUESTS.record();
+
+            assertThat(registry.counter("bankcards.errors", "code", "TOO_MANY_REQUESTS", "status", "429").count()).isEqualTo(1);
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bankcards.maintenance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardPurgeJobTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CardPurgeJob job() {
+        return new CardPurgeJob(jdbcTemplate, new CardPurgeProperties(true, Duration.ofDays(730), BATCH_SIZE, Duration.ofMinutes(10)));
+    }
+
+    @Test
+    @DisplayName("Карты удаляются порциями вместе со связанными строками")
+    void purge_ShouldDeleteRelatedRowsInBatchesBeforeCards() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT id FROM cards"), eq(Long.class), any(OffsetDateTime.class), eq(BATCH_SIZE)))
+                .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(jdbcTemplate.update(startsWith("DELETE FROM card_block_requests"), any(PreparedStatementSetter.class)))
+                .thenReturn(2, 1, 0, 0);
+        when(jdbcTemplate.update(contains("source_card_id"), any(PreparedStatementSetter.class))).thenReturn(0);
+        when(jdbcTemplate.update(contains("target_card_id"), any(PreparedStatementSetter.class))).thenReturn(0);
+        when(jdbcTemplate.update(startsWith("DELETE FROM cards"), any(PreparedStatementSetter.class))).thenReturn(2, 1);
+
+        job().purge();
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate, times(3)).update(startsWith("DELETE FROM card_block_requests"), any(PreparedStatementSetter.class));
+        inOrder.verify(jdbcTemplate).update(contains("source_card_id"), any(PreparedStatementSetter.class));
+        inOrder.verify(jdbcTemplate).update(contains("target_card_id"), any(PreparedStatementSetter.class));
+        inOrder.verify(jdbcTemplate).update(startsWith("DELETE FROM cards"), any(PreparedStatementSetter.class));
+        verify(jdbcTemplate, times(2)).update(startsWith("DELETE FROM cards"), any(PreparedStatementSetter.class));
+        verify(jdbcTemplate, times(3)).queryForList(anyString(), eq(Long.class), any(OffsetDateTime.class), eq(BATCH_SIZE));
+    }
+
+    @Test
+    @DisplayName("Нет карт для удаления")
+    void purge_ShouldNotDelete_WhenNothingExpired() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(OffsetDateTime.class), eq(BATCH_SIZE))).thenReturn(List.of());
+
+        job().purge();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Ошибка базы останавливает проход без исключения")
+    void purge_ShouldStop_WhenDatabaseFails() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(OffsetDateTime.class), eq(BATCH_SIZE))).thenReturn(List.of(1L));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenThrow(new QueryTimeoutException("timeout"));
+
+        job().purge();
+
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), any(OffsetDateTime.class), eq(BATCH_SIZE));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.bankcards.maintenance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenPurgeJobTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private RefreshTokenPurgeJob job() {
+        return new RefreshTokenPurgeJob(jdbcTemplate, new RefreshTokenPurgeProperties(true, Duration.ofDays(7), BATCH_SIZE, Duration.ofMinutes(30)));
+    }
+
+    @Test
+    @DisplayName("Токены удаляются порциями, пока порция заполнена")
+    void purge_ShouldDeleteInBatches_UntilBatchIsNotFull() {
+        when(jdbcTemplate.update(startsWith("DELETE FROM refresh_tokens"), any(OffsetDateTime.class), any(OffsetDateTime.class), eq(BATCH_SIZE)))
+                .thenReturn(BATCH_SIZE, BATCH_SIZE, 3);
+
+        job().purge();
+
+        ArgumentCaptor<OffsetDateTime> expiredBefore = ArgumentCaptor.forClass(OffsetDateTime.class);
+        ArgumentCaptor<OffsetDateTime> usedBefore = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(jdbcTemplate, times(3)).update(anyString(), expiredBefore.capture(), usedBefore.capture(), eq(BATCH_SIZE));
+        assertThat(Duration.between(usedBefore.getValue(), expiredBefore.getValue())).isEqualTo(Duration.ofDays(7));
+    }
+
+    @Test
+    @DisplayName("Ошибка базы останавливает проход без исключения")
+    void purge_ShouldStop_WhenDatabaseFails() {
+        when(jdbcTemplate.update(anyString(), any(OffsetDateTime.class), any(OffsetDateTime.class), eq(BATCH_SIZE)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThatCode(() -> job().purge()).doesNotThrowAnyException();
+        verify(jdbcTemplate, times(1)).update(anyString(), any(OffsetDateTime.class), any(OffsetDateTime.class), eq(BATCH_SIZE));
+    }
+}
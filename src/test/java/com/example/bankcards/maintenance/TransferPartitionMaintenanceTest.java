@@ -0,0 +1,109 @@
+package com.example.bankcards.maintenance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferPartitionMaintenanceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private ResultSet functionResult;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet tables;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    @TempDir
+    private Path archiveDir;
+
+    @Test
+    @DisplayName("Месяц раздела берется из имени таблицы")
+    void monthOf_ShouldParsePartitionSuffix() {
+        assertThat(TransferPartitionMaintenance.monthOf("transfers_2024_02")).isEqualTo(YearMonth.of(2024, 2));
+        assertThat(TransferPartitionMaintenance.monthOf("transfers_1999_12")).isEqualTo(YearMonth.of(1999, 12));
+    }
+
+    @Test
+    @DisplayName("Устаревшими считаются только разделы раньше месяца отсечения")
+    void isExpired_ShouldExcludeCutoffMonth() {
+        YearMonth cutoff = YearMonth.of(2024, 3);
+
+        assertThat(TransferPartitionMaintenance.isExpired("transfers_2024_02", cutoff)).isTrue();
+        assertThat(TransferPartitionMaintenance.isExpired("transfers_2023_12", cutoff)).isTrue();
+        assertThat(TransferPartitionMaintenance.isExpired("transfers_2024_03", cutoff)).isFalse();
+        assertThat(TransferPartitionMaintenance.isExpired("transfers_2024_04", cutoff)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Прерванное отсоединение раздела завершается через FINALIZE")
+    void maintain_ShouldFinalizePendingDetach_AndArchiveExpiredPartitions() throws Exception {
+        String current = "transfers_" + YearMonth.now(ZoneOffset.UTC).format(DateTimeFormatter.ofPattern("yyyy_MM"));
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(functionResult);
+        when(functionResult.next()).thenReturn(true);
+        when(functionResult.getBoolean(1)).thenReturn(true);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(contains("pg_inherits"))).thenReturn(tables);
+        when(tables.next()).thenReturn(true, true, true, true, false);
+        when(tables.getString(1)).thenReturn("transfers_2020_01", "transfers_2020_02", "transfers_2020_03", current);
+        // relispartition, then inhdetachpending for partitions only
+        when(tables.getBoolean(2)).thenReturn(true, true, false, true);
+        when(tables.getBoolean(3)).thenReturn(true, false, false);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyOut(anyString(), any(OutputStream.class))).thenReturn(0L);
+
+        new TransferPartitionMaintenance(dataSource, new TransferPartitionProperties(true, 3, 24, archiveDir, "-")).maintain();
+
+        verify(statement).execute("ALTER TABLE transfers DETACH PARTITION transfers_2020_01 FINALIZE");
+        verify(statement, never()).execute("ALTER TABLE transfers DETACH PARTITION transfers_2020_01 CONCURRENTLY");
+        verify(statement).execute("ALTER TABLE transfers DETACH PARTITION transfers_2020_02 CONCURRENTLY");
+        verify(statement, never()).execute(contains("DETACH PARTITION transfers_2020_03"));
+        verify(statement).execute("DROP TABLE transfers_2020_01");
+        verify(statement).execute("DROP TABLE transfers_2020_02");
+        verify(statement).execute("DROP TABLE transfers_2020_03");
+        verify(statement, never()).execute(contains(current));
+        assertThat(archiveDir.resolve("transfers_2020_01.csv.gz")).exists();
+        assertThat(Files.list(archiveDir)).hasSize(3);
+    }
+}
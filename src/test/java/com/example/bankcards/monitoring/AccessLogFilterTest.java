@@ -0,0 +1,106 @@
+package com.example.bankcards.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.event.KeyValuePair;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AccessLogFilterTest {
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(AccessLogFilter.class);
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("Событие доступа содержит эндпоинт, статус, задержку и пользователя")
+    void doFilter_ShouldLogRequestFields() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(new AccessLogProperties(true, 1.0, null));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/cards/7");
+        request.addHeader(AccessLogFilter.REQUEST_ID_HEADER, "req-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Map<String, String> mdcInChain = new HashMap<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            mdcInChain.put(AccessLogFilter.REQUEST_ID_KEY, MDC.get(AccessLogFilter.REQUEST_ID_KEY));
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/admin/cards/{cardId}");
+            req.setAttribute(AccessLogFilter.USER_ID_KEY, "42");
+        });
+
+        assertThat(mdcInChain).containsEntry(AccessLogFilter.REQUEST_ID_KEY, "req-1");
+        assertThat(response.getHeader(AccessLogFilter.REQUEST_ID_HEADER)).isEqualTo("req-1");
+        assertThat(appender.list).hasSize(1);
+        Map<String, Object> fields = fields(appender.list.get(0));
+        assertThat(fields).containsEntry("endpoint", "GET /api/admin/cards/{cardId}")
+                .containsEntry("status", 200)
+                .containsEntry(AccessLogFilter.USER_ID_KEY, "42")
+                .containsKey("latency_ms");
+        assertThat(appender.list.get(0).getMDCPropertyMap()).containsEntry(AccessLogFilter.REQUEST_ID_KEY, "req-1");
+    }
+
+    @Test
+    @DisplayName("MDC очищается и при исключении в цепочке")
+    void doFilter_ShouldClearMdc_WhenChainThrows() {
+        AccessLogFilter filter = new AccessLogFilter(new AccessLogProperties(true, 1.0, null));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cards");
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(MDC.get(AccessLogFilter.REQUEST_ID_KEY)).isNull();
+        assertThat(appender.list).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Ошибки сервера логируются без сэмплирования, генерируется request id")
+    void doFilter_ShouldAlwaysLogServerErrors() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(new AccessLogProperties(true, 0.0, null));
+        MockHttpServletResponse ok = new MockHttpServletResponse();
+        MockHttpServletResponse failed = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/cards"), ok, (req, res) -> {
+        });
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/cards"), failed, (req, res) ->
+                ((MockHttpServletResponse) res).setStatus(500));
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getLevel()).isEqualTo(Level.WARN);
+        assertThat(fields(appender.list.get(0))).doesNotContainKey(AccessLogFilter.USER_ID_KEY);
+        assertThat(ok.getHeader(AccessLogFilter.REQUEST_ID_HEADER)).isNotBlank();
+        assertThat(MDC.getCopyOfContextMap()).isNullOrEmpty();
+    }
+
+    private static Map<String, Object> fields(ILoggingEvent event) {
+        Map<String, Object> fields = new HashMap<>();
+        for (KeyValuePair pair : event.getKeyValuePairs()) {
+            fields.put(pair.key, pair.value);
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.bankcards.monitoring;
+
+import com.example.bankcards.dto.CardFilter;
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.dto.UserFilter;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardBlockRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardBlockRequestRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.JWT.JwtUtil;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.TokenRevocationService;
+import com.example.bankcards.service.UserService;
+import com.example.bankcards.service.impl.CardServiceImpl;
+import com.example.bankcards.service.impl.UserServiceImpl;
+import com.example.bankcards.util.CardGenerator;
+import com.example.bankcards.velocity.TransferVelocityGuard;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.bankcards.monitoring.SqlStatementAssertions.assertMaxStatements;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Statement budgets for the service calls behind each controller endpoint. The second-level
+ * cache is cleared first so lazy associations hit the database and N+1 shows up.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.encryption.key=000102030405060708090a0b0c0d0e0f"
+})
+@Import({UserServiceImpl.class, CardServiceImpl.class, TransferVelocityGuard.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EndpointStatementCountTest {
+
+    private static final int USERS = 5;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private CardBlockRequestRepository cardBlockRequestRepository;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private AuthenticationManager authenticationManager;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Card> cards = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transferRepository.deleteAll();
+        cardBlockRequestRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        for (int i = 0; i < USERS; i++) {
+            String username = "user-" + UUID.randomUUID();
+            User user = userRepository.save(User.builder()
+                    .username(username)
+                    .password("password")
+                    .firstName("First")
+                    .lastName("Last")
+                    .email(username + "@example.com")
+                    .role(User.Role.USER)
+                    .isActive(true)
+                    .build());
+            users.add(user);
+            for (int j = 0; j < 2; j++) {
+                Card card = new Card();
+                card.setCardNumber(CardGenerator.generateCardNumber());
+                card.setOwner(user);
+                card.setExpirationDate(OffsetDateTime.now().plusYears(5));
+                card.setBalance(10_000.0);
+                card.setStatus(Card.Status.ACTIVE);
+                cards.add(cardRepository.save(card));
+            }
+            CardBlockRequest request = new CardBlockRequest();
+            request.setCard(cards.get(cards.size() - 1));
+            request.setRequestedBy(user);
+            request.setStatus(CardBlockRequest.Status.PENDING);
+            cardBlockRequestRepository.save(request);
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/cards — без N+1 по владельцам")
+    void getAllCards_ShouldNotLoadOwnersOneByOne() {
+        var page = assertMaxStatements(1, () -> cardService.getAllCards(0, 20, "id", "asc", false, CardFilter.NONE));
+
+        assertThat(page.getContent()).hasSize(USERS * 2);
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/cards с фильтром — один запрос с владельцами")
+    void getAllCards_WithFilter_ShouldFetchOwnersInSameQuery() {
+        CardFilter filter = new CardFilter(users.get(0).getId(), Card.Status.ACTIVE, 5_000.0, null, null, null, null, null);
+
+        var page = assertMaxStatements(1, () -> cardService.getAllCards(0, 20, "id", "asc", false, filter));
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/requests — без N+1 по картам и пользователям")
+    void getAllCardRequests_ShouldNotLoadAssociationsOneByOne() {
+        var page = assertMaxStatements(1, () -> cardService.getAllCardRequests(0, 20, "id", "asc", false));
+
+        assertThat(page.getContent()).hasSize(USERS);
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/users")
+    void getAllUsers_ShouldUseSingleQuery() {
+        var page = assertMaxStatements(2, () -> userService.getAllUsers(0, 20, "id", "asc", true, UserFilter.NONE));
+
+        assertThat(page.getContent()).hasSize(USERS);
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/users с фильтром по префиксу email")
+    void getAllUsers_WithEmailPrefix_ShouldMatchCaseInsensitively() {
+        String prefix = users.get(0).getEmail().substring(0, 12).toUpperCase();
+        UserFilter filter = new UserFilter(null, prefix, "irs", null, true, null, null);
+
+        var page = assertMaxStatements(2, () -> userService.getAllUsers(0, 20, "id", "asc", true, filter));
+
+        assertThat(page.getContent()).extracting(UserDto::id).containsExactly(users.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("GET /api/users/balance")
+    void getUserWithBalance_ShouldUseTwoQueries() {
+        assertMaxStatements(2, () -> userService.getUserWithBalance(users.get(0).getId()));
+    }
+
+    @Test
+    @DisplayName("GET /api/users/cards")
+    void getAllCardsByUser_ShouldNotDependOnPageSize() {
+        var page = assertMaxStatements(3, () -> cardService.getAllCardsByUser(0, 20, "id", "asc", false, users.get(0)));
+
+        assertThat(page.getContent()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("POST /api/users/transfer")
+    void sendTransfer_ShouldLoadCardsInsertAndRecordSpendingOnce() {
+        User owner = users.get(0);
+        TransferRequestDto request = new TransferRequestDto(cards.get(0).getId(), cards.get(1).getId(), 100.0, "test");
+
+        assertMaxStatements(4, () -> cardService.sendTransfer(request, owner));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bankcards.monitoring;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static <T> T assertMaxStatements(int max, Supplier<T> action) {
+        SqlStatementStats.begin();
+        T result;
+        SqlStatementStats stats;
+        try {
+            result = action.get();
+        } finally {
+            stats = SqlStatementStats.end();
+        }
+        assertThat(stats.getCount())
+                .as("SQL statements executed: %s", stats.getStatements())
+                .isLessThanOrEqualTo(max);
+        return result;
+    }
+}
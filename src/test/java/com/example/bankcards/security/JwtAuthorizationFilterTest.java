@@ -0,0 +1,81 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.monitoring.AccessLogFilter;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.JWT.JwtAuthorizationFilter;
+import com.example.bankcards.security.JWT.JwtUtil;
+import com.example.bankcards.security.revocation.TokenRevocationRegistry;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthorizationFilterTest {
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private Claims claims;
+
+    @Mock
+    private UserDetails userDetails;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("user_id есть в MDC только во время запроса")
+    void doFilter_ShouldRemoveUserIdFromMdc_AfterRequest() throws Exception {
+        User user = User.builder().id(42L).username("testuser").isActive(true).role(User.Role.USER).build();
+        when(jwtUtil.parseAccessToken("token")).thenReturn(claims);
+        when(claims.getSubject()).thenReturn("testuser");
+        when(claims.getIssuedAt()).thenReturn(new Date());
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        doReturn(List.of()).when(userDetails).getAuthorities();
+        when(userRepository.findCachedByUsername("testuser")).thenReturn(Optional.of(user));
+        JwtAuthorizationFilter filter = new JwtAuthorizationFilter(authenticationManager, jwtUtil, userDetailsService,
+                userRepository, new TokenRevocationRegistry(60_000));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cards");
+        request.addHeader("Authorization", "Bearer token");
+        AtomicReference<String> userIdInChain = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> userIdInChain.set(MDC.get(AccessLogFilter.USER_ID_KEY)));
+
+        assertThat(userIdInChain.get()).isEqualTo("42");
+        assertThat(request.getAttribute(AccessLogFilter.USER_ID_KEY)).isEqualTo("42");
+        assertThat(MDC.get(AccessLogFilter.USER_ID_KEY)).isNull();
+    }
+}
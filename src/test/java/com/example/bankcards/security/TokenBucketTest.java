@@ -0,0 +1,45 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.security.ratelimit.TokenBucket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Пачка запросов в пределах емкости")
+    void tryConsume_ShouldAllowBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, SECOND, 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    @DisplayName("Восполнение токенов со временем")
+    void tryConsume_ShouldRefillOverTime() {
+        TokenBucket bucket = new TokenBucket(1, SECOND, 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(SECOND / 2)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryConsume(SECOND)).isZero();
+    }
+
+    @Test
+    @DisplayName("Простаивающее ведро")
+    void isIdle_ShouldReportFullBucketsAfterTimeout() {
+        TokenBucket bucket = new TokenBucket(2, SECOND, 0);
+        bucket.tryConsume(0);
+
+        assertThat(bucket.isIdle(SECOND * 5, SECOND * 10)).isFalse();
+        assertThat(bucket.isIdle(SECOND * 20, SECOND * 10)).isTrue();
+    }
+}
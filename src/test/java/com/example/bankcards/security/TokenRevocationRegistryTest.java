@@ -0,0 +1,45 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.security.revocation.TokenRevocationRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenRevocationRegistryTest {
+
+    private static final long LIFESPAN = 60_000;
+
+    private final TokenRevocationRegistry registry = new TokenRevocationRegistry(LIFESPAN);
+
+    @Test
+    @DisplayName("Токены, выпущенные до отзыва, отклоняются")
+    void isRevoked_ShouldRejectTokensIssuedBeforeRevocation() {
+        registry.apply(1L, 10_000);
+
+        assertThat(registry.isRevoked(1L, new Date(9_000))).isTrue();
+        assertThat(registry.isRevoked(1L, new Date(10_000))).isFalse();
+        assertThat(registry.isRevoked(2L, new Date(9_000))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Более ранний отзыв не перекрывает поздний")
+    void apply_ShouldKeepLatestRevocation() {
+        registry.apply(1L, 20_000);
+        registry.apply(1L, 10_000);
+
+        assertThat(registry.isRevoked(1L, new Date(15_000))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Отзывы старше срока жизни токена удаляются")
+    void evictExpired_ShouldDropEntriesOlderThanTokenLifespan() {
+        registry.apply(1L, 10_000);
+
+        registry.evictExpired(10_000 + LIFESPAN + 1_000);
+
+        assertThat(registry.isRevoked(1L, new Date(0))).isFalse();
+    }
+}
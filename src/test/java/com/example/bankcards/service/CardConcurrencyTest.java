@@ -0,0 +1,113 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.aspect.OptimisticLockRetryAspect;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.card.CardAlreadyActiveException;
+import com.example.bankcards.exception.card.CardAlreadyBlockedException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.impl.CardServiceImpl;
+import com.example.bankcards.util.CardGenerator;
+import com.example.bankcards.velocity.TransferVelocityGuard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.encryption.key=000102030405060708090a0b0c0d0e0f",
+        "app.retry.optimistic-lock.max-attempts=30",
+        "app.retry.optimistic-lock.initial-backoff=2",
+        "app.retry.optimistic-lock.max-backoff=20"
+})
+@Import({CardServiceImpl.class, TransferVelocityGuard.class, OptimisticLockRetryAspect.class})
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CardConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 25;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Конкурентная блокировка и активация одной карты")
+    void blockAndActivate_ShouldNotLoseUpdates_WhenHammeredConcurrently() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .username("hammer")
+                .password("password")
+                .email("hammer@example.com")
+                .role(User.Role.USER)
+                .isActive(true)
+                .build());
+
+        Card card = new Card();
+        card.setCardNumber(CardGenerator.generateCardNumber());
+        card.setOwner(owner);
+        card.setExpirationDate(OffsetDateTime.now().plusYears(5));
+        card.setBalance(10_000.0);
+        card.setStatus(Card.Status.ACTIVE);
+        Long cardId = cardRepository.save(card).getId();
+        long initialVersion = cardRepository.findById(cardId).orElseThrow().getVersion();
+
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            boolean blocker = t % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    try {
+                        if (blocker) {
+                            cardService.blockCard(cardId);
+                        } else {
+                            cardService.activateCard(cardId);
+                        }
+                        applied.incrementAndGet();
+                    } catch (CardAlreadyBlockedException | CardAlreadyActiveException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Card result = cardRepository.findById(cardId).orElseThrow();
+        assertThat(applied.get() + rejected.get()).isEqualTo(THREADS * OPERATIONS_PER_THREAD);
+        assertThat(result.getVersion() - initialVersion).isEqualTo(applied.get());
+        assertThat(result.getStatus()).isEqualTo(applied.get() % 2 == 0 ? Card.Status.ACTIVE : Card.Status.BLOCKED);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.*;
 import com.example.bankcards.entity.*;
+import com.example.bankcards.event.CardRequestEvent;
 import com.example.bankcards.exception.card.*;
 import com.example.bankcards.exception.request.RequestAlreadyApprovedException;
 import com.example.bankcards.exception.request.RequestNotFoundException;
@@ -12,15 +13,21 @@ import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.impl.CardServiceImpl;
 import com.example.bankcards.util.CardGenerator;
 import com.example.bankcards.util.PageUtil;
+import com.example.bankcards.velocity.TransferVelocityGuard;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -30,6 +37,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class CardServiceImplTest {
 
+    private static final ZoneId ZONE = ZoneId.of("Europe/Moscow");
+
     @Mock
     private CardRepository cardRepository;
 
@@ -42,6 +51,15 @@ class CardServiceImplTest {
     @Mock
     private TransferRepository transferRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransferVelocityGuard transferVelocityGuard;
+
+    @Spy
+    private CardLimitProperties cardLimitProperties = new CardLimitProperties(ZONE, null, null);
+
     @InjectMocks
     private CardServiceImpl cardService;
 
@@ -133,6 +151,34 @@ class CardServiceImplTest {
                 .hasMessage("Card already blocked");
     }
 
+    @Test
+    @DisplayName("Массовая блокировка по фильтру идет порциями")
+    void updateCardStatuses_ShouldWalkFilterInChunks() {
+        CardFilter filter = new CardFilter(1L, null, null, null, null, null, null, null);
+        List<Long> firstChunk = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            firstChunk.add(id);
+        }
+        when(cardRepository.findIdsForStatusChange(filter, Card.Status.BLOCKED, 0L, 1000)).thenReturn(firstChunk);
+        when(cardRepository.findIdsForStatusChange(filter, Card.Status.BLOCKED, 1000L, 1000)).thenReturn(List.of(1001L));
+        when(cardRepository.updateStatusByIds(eq(firstChunk), eq(Card.Status.BLOCKED), any())).thenReturn(1000);
+        when(cardRepository.updateStatusByIds(eq(List.of(1001L)), eq(Card.Status.BLOCKED), any())).thenReturn(1);
+
+        BulkUpdateResult result = cardService.updateCardStatuses(new BulkCardStatusRequest(null, filter), Card.Status.BLOCKED);
+
+        assertThat(result.updated()).isEqualTo(1001);
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Массовое обновление без критериев отклоняется")
+    void updateCardStatuses_ShouldRejectRequestWithoutCriteria() {
+        assertThatThrownBy(() -> cardService.updateCardStatuses(
+                new BulkCardStatusRequest(List.of(), CardFilter.NONE), Card.Status.BLOCKED))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(cardRepository);
+    }
+
     @Test
     @DisplayName("Перевод средств")
     void sendTransfer_ShouldProcessTransfer_WhenValid() {
@@ -144,6 +190,7 @@ class CardServiceImplTest {
 
         TransferRequestDto requestDto = new TransferRequestDto(100L, 101L, 1000.0, "Test transfer");
 
+        when(transferVelocityGuard.tryAcquire(100L, 1000.0)).thenReturn(true);
         when(cardRepository.findById(100L)).thenReturn(Optional.of(card));
         when(cardRepository.findById(101L)).thenReturn(Optional.of(receiverCard));
         when(transferRepository.save(any(Transfer.class))).thenAnswer(i -> {
@@ -168,15 +215,23 @@ class CardServiceImplTest {
     void sendTransfer_ShouldThrowNotEnoughBalanceException_WhenInsufficientFunds() {
         TransferRequestDto requestDto = new TransferRequestDto(100L, 101L, 15000.0, "Too much");
 
+        when(transferVelocityGuard.tryAcquire(100L, 15000.0)).thenReturn(true);
         when(cardRepository.findById(100L)).thenReturn(Optional.of(card)); // balance = 10_000
         when(cardRepository.findById(101L)).thenReturn(Optional.of(new Card() {{
             setOwner(user);
             setStatus(Card.Status.ACTIVE);
         }}));
 
-        assertThatThrownBy(() -> cardService.sendTransfer(requestDto, user))
-                .isInstanceOf(NotEnoughBalanceException.class)
-                .hasMessage("Not enough balance");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            assertThatThrownBy(() -> cardService.sendTransfer(requestDto, user))
+                    .isInstanceOf(NotEnoughBalanceException.class)
+                    .hasMessage("Not enough balance");
+            assertThat(registry.counter("bankcards.transfers", "outcome", "not_enough_balance").count()).isEqualTo(1);
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
     }
 
     @Test
@@ -200,10 +255,93 @@ class CardServiceImplTest {
                 .hasMessage("Its not your card");
     }
 
+    @Test
+    @DisplayName("Перевод с чужой карты не расходует ее лимит частоты")
+    void sendTransfer_ShouldNotTouchVelocity_WhenSenderCardNotOwned() {
+        User anotherUser = new User();
+        anotherUser.setId(2L);
+        Card ownCard = new Card();
+        ownCard.setId(101L);
+        ownCard.setOwner(anotherUser);
+        ownCard.setStatus(Card.Status.ACTIVE);
+        TransferRequestDto requestDto = new TransferRequestDto(100L, 101L, 1000.0, "Not mine");
+
+        when(cardRepository.findById(100L)).thenReturn(Optional.of(card));
+        when(cardRepository.findById(101L)).thenReturn(Optional.of(ownCard));
+
+        assertThatThrownBy(() -> cardService.sendTransfer(requestDto, anotherUser))
+                .isInstanceOf(NotUserCardException.class);
+        verify(transferVelocityGuard, never()).tryAcquire(anyLong(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Перевод средств — превышен дневной лимит")
+    void sendTransfer_ShouldThrowSpendingLimitExceededException_WhenDailyLimitReached() {
+        LocalDate today = LocalDate.now(ZONE);
+        card.setDailyLimit(1000.0);
+        card.getSpending().record(600.0, today);
+        Card receiverCard = new Card();
+        receiverCard.setId(101L);
+        receiverCard.setOwner(user);
+        receiverCard.setStatus(Card.Status.ACTIVE);
+        TransferRequestDto requestDto = new TransferRequestDto(100L, 101L, 500.0, "Over limit");
+
+        when(transferVelocityGuard.tryAcquire(100L, 500.0)).thenReturn(true);
+        when(cardRepository.findById(100L)).thenReturn(Optional.of(card));
+        when(cardRepository.findById(101L)).thenReturn(Optional.of(receiverCard));
+
+        assertThatThrownBy(() -> cardService.sendTransfer(requestDto, user))
+                .isInstanceOf(SpendingLimitExceededException.class)
+                .hasMessage("Card spending limit exceeded");
+        assertThat(card.getSpending().spentOn(today)).isEqualTo(600.0);
+        verify(transferRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Перевод средств — вчерашние траты не учитываются в дневном лимите")
+    void sendTransfer_ShouldStartNewDay_WhenLastSpendingWasYesterday() {
+        LocalDate today = LocalDate.now(ZONE);
+        card.setDailyLimit(1000.0);
+        card.getSpending().record(900.0, today.minusDays(1));
+        Card receiverCard = new Card();
+        receiverCard.setId(101L);
+        receiverCard.setOwner(user);
+        receiverCard.setStatus(Card.Status.ACTIVE);
+        TransferRequestDto requestDto = new TransferRequestDto(100L, 101L, 1000.0, "New day");
+
+        when(transferVelocityGuard.tryAcquire(100L, 1000.0)).thenReturn(true);
+        when(cardRepository.findById(100L)).thenReturn(Optional.of(card));
+        when(cardRepository.findById(101L)).thenReturn(Optional.of(receiverCard));
+        when(transferRepository.save(any(Transfer.class))).thenAnswer(i -> i.getArgument(0));
+
+        cardService.sendTransfer(requestDto, user);
+
+        assertThat(card.getSpending().spentOn(today)).isEqualTo(1000.0);
+        assertThat(card.getSpending().getDay()).isEqualTo(today);
+    }
+
+    @Test
+    @DisplayName("Перевод средств — превышен лимит частоты")
+    void sendTransfer_ShouldThrowVelocityLimitExceededException_BeforeRecordingTransfer() {
+        Card receiverCard = new Card();
+        receiverCard.setId(101L);
+        receiverCard.setOwner(user);
+        receiverCard.setStatus(Card.Status.ACTIVE);
+        TransferRequestDto requestDto = new TransferRequestDto(100L, 101L, 1000.0, "Too often");
+        when(cardRepository.findById(100L)).thenReturn(Optional.of(card));
+        when(cardRepository.findById(101L)).thenReturn(Optional.of(receiverCard));
+        when(transferVelocityGuard.tryAcquire(100L, 1000.0)).thenReturn(false);
+
+        assertThatThrownBy(() -> cardService.sendTransfer(requestDto, user))
+                .isInstanceOf(VelocityLimitExceededException.class);
+        verifyNoInteractions(transferRepository);
+        assertThat(card.getSpending().spentOn(LocalDate.now(ZONE))).isZero();
+    }
+
     @Test
     @DisplayName("Отправка запроса на блокировку")
     void sendRequest_ShouldCreateRequest_WhenCardIsOwnedAndActive() {
-        when(cardRepository.findById(100L)).thenReturn(Optional.of(card));
+        when(cardRepository.findWithVersionCheckById(100L)).thenReturn(Optional.of(card));
         when(cardBlockRequestRepository.save(any(CardBlockRequest.class))).thenAnswer(i -> {
             CardBlockRequest r = i.getArgument(0);
             r.setId(1L);
@@ -217,6 +355,7 @@ class CardServiceImplTest {
         assertThat(result.status()).isEqualTo("PENDING");
         assertThat(result.username()).isEqualTo("testuser");
         verify(cardBlockRequestRepository, times(1)).save(any(CardBlockRequest.class));
+        verify(eventPublisher).publishEvent(new CardRequestEvent(CardRequestEvent.Type.CREATED, result));
     }
 
     @Test
@@ -225,7 +364,7 @@ class CardServiceImplTest {
         User foreignUser = new User();
         foreignUser.setId(999L);
 
-        when(cardRepository.findById(100L)).thenReturn(Optional.of(card));
+        when(cardRepository.findWithVersionCheckById(100L)).thenReturn(Optional.of(card));
 
         assertThatThrownBy(() -> cardService.sendRequest(100L, foreignUser))
                 .isInstanceOf(NotUserCardException.class)
@@ -235,24 +374,60 @@ class CardServiceImplTest {
     @Test
     @DisplayName("Одобрение запроса")
     void approveRequest_ShouldApprove_WhenPending() {
-        when(cardBlockRequestRepository.findById(1L)).thenReturn(Optional.of(request));
+        when(cardBlockRequestRepository.findWithLiveCardById(1L)).thenReturn(Optional.of(request));
         when(cardBlockRequestRepository.save(any(CardBlockRequest.class))).thenAnswer(i -> i.getArgument(0));
 
         CardProcessDto result = cardService.approveRequest(1L);
 
         assertThat(result.status()).isEqualTo("APPROVED");
         assertThat(result.username()).isEqualTo("testuser");
+        verify(eventPublisher).publishEvent(new CardRequestEvent(CardRequestEvent.Type.PROCESSED, result));
     }
 
     @Test
     @DisplayName("Одобрение уже одобренного запроса")
     void approveRequest_ShouldThrowRequestAlreadyApprovedException_WhenAlreadyApproved() {
         request.setStatus(CardBlockRequest.Status.APPROVED);
-        when(cardBlockRequestRepository.findById(1L)).thenReturn(Optional.of(request));
+        when(cardBlockRequestRepository.findWithLiveCardById(1L)).thenReturn(Optional.of(request));
 
         assertThatThrownBy(() -> cardService.approveRequest(1L))
                 .isInstanceOf(RequestAlreadyApprovedException.class)
                 .hasMessage("Card already active");
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Одобрение запроса по удаленной карте")
+    void approveRequest_ShouldThrowRequestNotFoundException_WhenCardDeleted() {
+        when(cardBlockRequestRepository.findWithLiveCardById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cardService.approveRequest(1L))
+                .isInstanceOf(RequestNotFoundException.class);
+        verify(cardBlockRequestRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Удаление карты отклоняет ее ожидающие запросы")
+    void deleteCard_ShouldRejectPendingRequests_InSameTransaction() {
+        when(cardRepository.softDeleteById(eq(100L), any())).thenReturn(1);
+        when(cardBlockRequestRepository.rejectPendingByCardId(eq(100L), any())).thenReturn(1);
+
+        cardService.deleteCard(100L);
+
+        ArgumentCaptor<OffsetDateTime> deletedAt = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(cardRepository).softDeleteById(eq(100L), deletedAt.capture());
+        verify(cardBlockRequestRepository).rejectPendingByCardId(100L, deletedAt.getValue());
+    }
+
+    @Test
+    @DisplayName("Удаление несуществующей карты")
+    void deleteCard_ShouldThrowCardNotFoundException_WhenCardMissing() {
+        when(cardRepository.softDeleteById(eq(999L), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> cardService.deleteCard(999L))
+                .isInstanceOf(CardNotFoundException.class);
+        verifyNoInteractions(cardBlockRequestRepository);
     }
 
     @Test
@@ -263,10 +438,36 @@ class CardServiceImplTest {
 
         when(cardRepository.findAll(pageable)).thenReturn(cardPage);
 
-        Page<CardResponseDto> result = cardService.getAllCards(0, 10, "id", "asc");
+        Slice<CardResponseDto> result = cardService.getAllCards(0, 10, "id", "asc", true, CardFilter.NONE);
 
+        assertThat(result).isInstanceOf(Page.class);
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).id()).isEqualTo(100L);
         verify(cardRepository, times(1)).findAll(pageable);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Пагинация всех карт без подсчета общего количества")
+    void getAllCards_ShouldSkipCount_WhenTotalNotRequested() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
+        when(cardRepository.findSliceBy(pageable)).thenReturn(new SliceImpl<>(List.of(card), pageable, true));
+
+        Slice<CardResponseDto> result = cardService.getAllCards(0, 10, "id", "asc", false, CardFilter.NONE);
+
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result).isNotInstanceOf(Page.class);
+        verify(cardRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Версия списка карт пользователя")
+    void getCardsVersionByUser_ShouldQueryByOwnerId() {
+        ListingVersion version = new ListingVersion(1L, card.getUpdatedAt());
+        when(cardRepository.getListingVersionByOwnerId(1L)).thenReturn(version);
+
+        ListingVersion result = cardService.getCardsVersionByUser(user);
+
+        assertThat(result).isEqualTo(version);
+        verify(cardRepository, never()).findAllByOwner(any(), any());
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.JWT.JwtUtil;
+import com.example.bankcards.service.impl.CardServiceImpl;
+import com.example.bankcards.service.impl.TokenRevocationServiceImpl;
+import com.example.bankcards.service.impl.UserServiceImpl;
+import com.example.bankcards.util.CardGenerator;
+import com.example.bankcards.velocity.TransferVelocityGuard;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.encryption.key=000102030405060708090a0b0c0d0e0f"
+})
+@Import({UserServiceImpl.class, CardServiceImpl.class, TransferVelocityGuard.class, TokenRevocationServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private AuthenticationManager authenticationManager;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    private TransactionTemplate transactionTemplate;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        String username = "user-" + UUID.randomUUID();
+        user = userRepository.save(User.builder()
+                .username(username)
+                .password("password")
+                .email(username + "@example.com")
+                .role(User.Role.USER)
+                .isActive(true)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Кэш не отдает устаревшую роль")
+    void addRoleToUser_ShouldRefreshCachedUser() {
+        warmUp(user);
+        long hits = regionStatistics("users").getHitCount();
+
+        userService.addRoleToUser(user.getId(), User.Role.ADMIN);
+
+        assertThat(loadUser(user.getId()).getRole()).isEqualTo(User.Role.ADMIN);
+        assertThat(userRepository.findCachedByUsername(user.getUsername()).orElseThrow().getRole()).isEqualTo(User.Role.ADMIN);
+        assertThat(regionStatistics("users").getHitCount()).isGreaterThan(hits);
+    }
+
+    @Test
+    @DisplayName("Кэш не отдает устаревший статус пользователя")
+    void deactivateUser_ShouldRefreshCachedUser() {
+        warmUp(user);
+
+        userService.deactivateUser(user.getId());
+
+        assertThat(loadUser(user.getId()).getIsActive()).isFalse();
+        assertThat(userRepository.findCachedByUsername(user.getUsername()).orElseThrow().getIsActive()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Кэш не отдает устаревший статус после активации")
+    void activateUser_ShouldRefreshCachedUser() {
+        userService.deactivateUser(user.getId());
+        warmUp(user);
+        assertThat(loadUser(user.getId()).getIsActive()).isFalse();
+
+        userService.activateUser(user.getId());
+
+        assertThat(loadUser(user.getId()).getIsActive()).isTrue();
+        assertThat(userRepository.findCachedByUsername(user.getUsername()).orElseThrow().getIsActive()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Карты не кэшируются между узлами")
+    void findById_ShouldNotCacheCards() {
+        Long cardId = saveCard();
+
+        transactionTemplate.executeWithoutResult(status -> cardRepository.findById(cardId).orElseThrow());
+
+        assertThat(entityManagerFactory.getCache().contains(Card.class, cardId)).isFalse();
+        cardService.blockCard(cardId);
+        Card.Status status = transactionTemplate.execute(tx -> cardRepository.findById(cardId).orElseThrow().getStatus());
+        assertThat(status).isEqualTo(Card.Status.BLOCKED);
+    }
+
+    @Test
+    @DisplayName("Удаленная карта не отдается")
+    void deleteCard_ShouldHideCard() {
+        Long cardId = saveCard();
+        transactionTemplate.executeWithoutResult(status -> cardRepository.findById(cardId).orElseThrow());
+
+        cardService.deleteCard(cardId);
+
+        assertThat(transactionTemplate.execute(status -> cardRepository.findById(cardId))).isEmpty();
+        assertThat(userService.getUserWithBalance(user.getId()).balance()).isZero();
+    }
+
+    private Long saveCard() {
+        Card card = new Card();
+        card.setCardNumber(CardGenerator.generateCardNumber());
+        card.setOwner(user);
+        card.setExpirationDate(OffsetDateTime.now().plusYears(5));
+        card.setBalance(10_000.0);
+        card.setStatus(Card.Status.ACTIVE);
+        return cardRepository.save(card).getId();
+    }
+
+    private void warmUp(User user) {
+        loadUser(user.getId());
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.getId())).isTrue();
+    }
+
+    private User loadUser(Long id) {
+        return transactionTemplate.execute(status -> userRepository.findById(id).orElseThrow());
+    }
+
+    private CacheRegionStatistics regionStatistics(String region) {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getDomainDataRegionStatistics(region);
+    }
+}
@@ -1,14 +1,20 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.*;
+import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.user.*;
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.exception.auth.InvalidRefreshTokenException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RefreshTokenRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.JWT.JwtUtil;
 import com.example.bankcards.service.UserService;
 import com.example.bankcards.service.impl.UserServiceImpl;
 import com.example.bankcards.util.PageUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,6 +30,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -47,6 +54,12 @@ class UserServiceImplTest {
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -79,8 +92,14 @@ class UserServiceImplTest {
                 .build();
 
         when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(userRepository.findCachedByUsername("testuser")).thenReturn(Optional.of(user));
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(i -> {
+            RefreshToken token = i.getArgument(0);
+            token.setId(UUID.randomUUID());
+            return token;
+        });
         when(jwtUtil.generateToken(userDetails)).thenReturn("mock.jwt.token");
-        when(jwtUtil.generateRefreshToken(userDetails)).thenReturn("mock.refresh.token");
+        when(jwtUtil.generateRefreshToken(eq("testuser"), any(UUID.class), any(UUID.class))).thenReturn("mock.refresh.token");
 
         // When
         JWTResponse response = userService.login(loginRequest);
@@ -89,6 +108,52 @@ class UserServiceImplTest {
         assertThat(response.token()).isEqualTo("mock.jwt.token");
         assertThat(response.refreshToken()).isEqualTo("mock.refresh.token");
         verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
+        verify(refreshTokenRepository, times(1)).save(argThat(t -> t.getUser() == user && !t.getRevoked()));
+    }
+
+    @Test
+    @DisplayName("Тест: обновление токена с ротацией")
+    void refresh_ShouldRotateToken_WhenTokenIsUnused() {
+        UUID tokenId = UUID.randomUUID();
+        UUID familyId = UUID.randomUUID();
+        when(jwtUtil.parseRefreshToken("refresh.token")).thenReturn(refreshClaims(tokenId, familyId));
+        when(refreshTokenRepository.markUsed(eq(tokenId), any(OffsetDateTime.class))).thenReturn(1);
+        when(userRepository.findCachedByUsername("testuser")).thenReturn(Optional.of(user));
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(i -> {
+            RefreshToken token = i.getArgument(0);
+            token.setId(UUID.randomUUID());
+            return token;
+        });
+        when(jwtUtil.generateToken("testuser")).thenReturn("new.jwt.token");
+        when(jwtUtil.generateRefreshToken(eq("testuser"), any(UUID.class), eq(familyId))).thenReturn("new.refresh.token");
+
+        JWTResponse response = userService.refresh(new RefreshRequest("refresh.token"));
+
+        assertThat(response.token()).isEqualTo("new.jwt.token");
+        assertThat(response.refreshToken()).isEqualTo("new.refresh.token");
+        verify(refreshTokenRepository, never()).revokeFamily(any());
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    @DisplayName("Тест: повторное использование токена отзывает семейство")
+    void refresh_ShouldRevokeFamily_WhenTokenReused() {
+        UUID tokenId = UUID.randomUUID();
+        UUID familyId = UUID.randomUUID();
+        when(jwtUtil.parseRefreshToken("refresh.token")).thenReturn(refreshClaims(tokenId, familyId));
+        when(refreshTokenRepository.markUsed(eq(tokenId), any(OffsetDateTime.class))).thenReturn(0);
+
+        assertThatThrownBy(() -> userService.refresh(new RefreshRequest("refresh.token")))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        verify(refreshTokenRepository, times(1)).revokeFamily(familyId);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    private Claims refreshClaims(UUID tokenId, UUID familyId) {
+        Claims claims = Jwts.claims().setSubject("testuser").setId(tokenId.toString());
+        claims.put(JwtUtil.FAMILY_CLAIM, familyId.toString());
+        return claims;
     }
 
     @Test
@@ -118,7 +183,7 @@ class UserServiceImplTest {
         when(userRepository.findAll(pageable)).thenReturn(userPage);
 
         // When
-        Page<UserDto> result = userService.getAllUsers(0, 10, "id", "asc");
+        Slice<UserDto> result = userService.getAllUsers(0, 10, "id", "asc", true, UserFilter.NONE);
 
         // Then
         assertThat(result.getContent()).hasSize(1);
@@ -126,6 +191,16 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findAll(pageable);
     }
 
+    @Test
+    @DisplayName("Тест: поиск по имени короче трех символов отклоняется")
+    void getAllUsers_ShouldRejectShortNameSearch() {
+        UserFilter filter = new UserFilter(null, null, "an", null, null, null, null);
+
+        assertThatThrownBy(() -> userService.getAllUsers(0, 10, "id", "asc", false, filter))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     @DisplayName("Тест: деактивация пользователя")
     void deactivateUser_ShouldDeactivate_WhenUserIsActive() {
@@ -139,6 +214,8 @@ class UserServiceImplTest {
         // Then
         assertThat(result.id()).isEqualTo(1L);
         verify(userRepository, times(1)).save(argThat(u -> !u.getIsActive()));
+        verify(cardRepository).updateStatusByOwnerId(eq(1L), eq(Card.Status.BLOCKED), any(OffsetDateTime.class));
+        verify(tokenRevocationService).revokeTokens(1L);
     }
 
     @Test
@@ -150,6 +227,7 @@ class UserServiceImplTest {
         assertThatThrownBy(() -> userService.deactivateUser(1L))
                 .isInstanceOf(UserAlreadyDeactivatedException.class)
                 .hasMessage("User already deactivated");
+        verifyNoInteractions(tokenRevocationService);
     }
 
     @Test
@@ -162,6 +240,7 @@ class UserServiceImplTest {
         UserDto result = userService.activateUser(1L);
 
         assertThat(result.isActive()).isTrue();
+        verify(tokenRevocationService).revokeTokens(1L);
     }
 
     @Test
@@ -185,6 +264,7 @@ class UserServiceImplTest {
 
         assertThat(result.role()).isEqualTo("ADMIN");
         verify(userRepository, times(1)).save(argThat(u -> u.getRole() == User.Role.ADMIN));
+        verify(tokenRevocationService).revokeTokens(1L);
     }
 
     @Test
@@ -0,0 +1,37 @@
+package com.example.bankcards.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CardGeneratorTest {
+
+    @Test
+    @DisplayName("Номер карты проходит проверку Луна")
+    void generateCardNumber_ShouldPassLuhnCheck() {
+        for (int i = 0; i < 1000; i++) {
+            String number = CardGenerator.generateCardNumber();
+
+            assertThat(number).hasSize(16).containsOnlyDigits();
+            assertThat(CardGenerator.isValidLuhn(number)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Проверка Луна на известных номерах")
+    void isValidLuhn_ShouldMatchKnownNumbers() {
+        assertThat(CardGenerator.isValidLuhn("4111111111111111")).isTrue();
+        assertThat(CardGenerator.isValidLuhn("5555555555554444")).isTrue();
+        assertThat(CardGenerator.isValidLuhn("4111111111111112")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Одинаковый seed дает одинаковые номера")
+    void generateCardNumber_ShouldBeDeterministicForSeed() {
+        assertThat(CardGenerator.generateCardNumber(new SplittableRandom(7)))
+                .isEqualTo(CardGenerator.generateCardNumber(new SplittableRandom(7)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.bankcards.velocity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SlidingWindowCounterTest {
+
+    private static final long SECOND = 1000;
+
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(1), 6, 4);
+
+    @Test
+    @DisplayName("Лимит по количеству переводов в окне")
+    void tryAdd_ShouldRejectOverCountLimit() {
+        assertThat(counter.tryAdd(1, 10, 0, 2, Double.MAX_VALUE)).isTrue();
+        assertThat(counter.tryAdd(1, 10, SECOND, 2, Double.MAX_VALUE)).isTrue();
+        assertThat(counter.tryAdd(1, 10, 2 * SECOND, 2, Double.MAX_VALUE)).isFalse();
+        assertThat(counter.tryAdd(2, 10, 2 * SECOND, 2, Double.MAX_VALUE)).isTrue();
+
+        assertThat(counter.count(1, 2 * SECOND)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Лимит по сумме переводов в окне")
+    void tryAdd_ShouldRejectOverAmountLimit() {
+        assertThat(counter.tryAdd(1, 600, 0, Long.MAX_VALUE, 1000)).isTrue();
+        assertThat(counter.tryAdd(1, 500, SECOND, Long.MAX_VALUE, 1000)).isFalse();
+        assertThat(counter.tryAdd(1, 400, SECOND, Long.MAX_VALUE, 1000)).isTrue();
+
+        assertThat(counter.amount(1, SECOND)).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("Старые корзины выходят из окна")
+    void tryAdd_ShouldForgetTransfersOutsideWindow() {
+        assertThat(counter.tryAdd(1, 10, 0, 1, Double.MAX_VALUE)).isTrue();
+        assertThat(counter.tryAdd(1, 10, 59 * SECOND, 1, Double.MAX_VALUE)).isFalse();
+        assertThat(counter.tryAdd(1, 10, 60 * SECOND, 1, Double.MAX_VALUE)).isTrue();
+
+        assertThat(counter.count(1, 60 * SECOND)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Отмена учтенного перевода")
+    void subtract_ShouldReleaseRecordedTransfer() {
+        counter.tryAdd(1, 10, 0, 1, Double.MAX_VALUE);
+        counter.subtract(1, 10, 0);
+
+        assertThat(counter.count(1, 0)).isZero();
+        assertThat(counter.tryAdd(1, 10, 0, 1, Double.MAX_VALUE)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Рост таблицы сохраняет счетчики и отбрасывает устаревшие ключи")
+    void tryAdd_ShouldKeepLiveKeysAcrossRehash() {
+        for (long key = 1; key <= 1000; key++) {
+            counter.tryAdd(key, 1, 0, Long.MAX_VALUE, Double.MAX_VALUE);
+        }
+        for (long key = 1001; key <= 2000; key++) {
+            counter.tryAdd(key, 1, 90 * SECOND, Long.MAX_VALUE, Double.MAX_VALUE);
+        }
+
+        assertThat(counter.count(500, 90 * SECOND)).isZero();
+        assertThat(counter.count(1500, 90 * SECOND)).isEqualTo(1);
+        assertThat(counter.count(500, 30 * SECOND)).as("dropped on rehash").isZero();
+    }
+}